@@ -16,6 +16,8 @@
 
 package com.netflix.spinnaker.igor;
 
+import java.util.HashMap;
+import java.util.Map;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
@@ -78,6 +80,173 @@ public class IgorConfigurationProperties {
 
       /** The thread pool size used by the polling monitors */
       private int schedulerPoolSize = Runtime.getRuntime().availableProcessors();
+
+      /**
+       * Defines whether each polling monitor runs its poll cycles on a scheduler thread of its own
+       * rather than on the shared pool sized by {@code schedulerPoolSize}, so that a slow monitor
+       * can't hold up the cycles of the others. Partitions are always polled on an executor of the
+       * monitor's own, sized by its {@code pollConcurrency}.
+       */
+      private boolean isolateMonitors = false;
+
+      /**
+       * The maximum number of partitions (ex: masters, accounts) a single polling monitor will poll
+       * concurrently. Each monitor gets its own bounded executor of this size; a value of 1 polls
+       * partitions sequentially on the scheduler thread. It doesn't apply in {@code virtual}
+       * execution mode, where every partition is polled on a thread of its own.
+       */
+      private int pollConcurrency = 1;
+
+      /**
+       * How polling work is executed. {@code platform} polls on a bounded pool of platform threads
+       * sized by {@code pollConcurrency}. {@code virtual} runs every partition, and the per-item
+       * downstream calls monitors fan out within a partition, on virtual threads; this requires a
+       * Java 21+ runtime and falls back to a platform thread per task otherwise. Either way, at
+       * most {@code partitionConcurrency} per-item calls of a partition have a thread at a time.
+       */
+      private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+      /**
+       * The maximum number of concurrent downstream calls a monitor will make against a single
+       * partition (ex: one Jenkins master) when fanning out per-item work in {@code virtual}
+       * execution mode.
+       */
+      private int partitionConcurrency = 10;
+
+      /**
+       * The maximum number of items in a single page of a delta, for monitors that generate and
+       * commit their deltas page by page.
+       */
+      private int deltaPageSize = 1000;
+
+      /**
+       * The number of most recent polls of each partition kept in memory, served by the
+       * `/admin/pollers/{monitor}/history` endpoint.
+       */
+      private int pollHistorySize = 32;
+
+      /** Adaptive, per-partition poll interval configuration. */
+      @NestedConfigurationProperty
+      private AdaptivePollingProperties adaptivePolling = new AdaptivePollingProperties();
+
+      /** Spreading of polls over time, so that replicas and partitions don't all poll at once. */
+      @NestedConfigurationProperty
+      private SchedulingProperties scheduling = new SchedulingProperties();
+
+      /** Tracking of how fresh each partition's cached state is, shared across replicas. */
+      @NestedConfigurationProperty
+      private FreshnessProperties freshness = new FreshnessProperties();
+
+      /**
+       * Polling overrides for individual monitors, keyed by monitor name (ex: {@code
+       * dockerTagMonitor}). Build server hosts, Docker accounts and Artifactory searches may also
+       * define their own {@code pollInterval} and {@code lockDuration}, which take precedence.
+       */
+      private Map<String, MonitorPollingProperties> monitors = new HashMap<>();
+
+      @Data
+      public static class MonitorPollingProperties {
+        /** The poll interval (in seconds) of this monitor, overriding the global one. */
+        private Integer pollInterval;
+
+        /**
+         * The maximum number of partitions this monitor polls concurrently, overriding the global
+         * {@code pollConcurrency}.
+         */
+        private Integer pollConcurrency;
+
+        /**
+         * How long (in seconds) a partition of this monitor stays locked while being polled.
+         * Defaults to the partition's poll interval.
+         */
+        private Integer lockDuration;
+
+        /** Polling overrides for individual partitions of this monitor, keyed by partition name. */
+        private Map<String, PartitionPollingProperties> partitions = new HashMap<>();
+      }
+
+      @Data
+      public static class PartitionPollingProperties {
+        /** The poll interval (in seconds) of this partition. */
+        private Integer pollInterval;
+
+        /** How long (in seconds) this partition stays locked while being polled. */
+        private Integer lockDuration;
+      }
+
+      @Data
+      public static class AdaptivePollingProperties {
+        /**
+         * Defines whether partitions adapt their poll interval to their observed change rate.
+         * Partitions without new items back off towards {@code maxPollInterval}, partitions with
+         * new items tighten towards {@code minPollInterval}.
+         *
+         * <p>The adapted interval is kept in memory by the replica polling the partition, so it
+         * only applies where a single replica polls each partition: a single replica, or replicas
+         * sharding partitions between them. Replicas racing for a partition's lock keep polling
+         * it on its configured interval.
+         */
+        private boolean enabled = false;
+
+        /** The shortest poll interval (in seconds) a partition will tighten to. */
+        private int minPollInterval = 15;
+
+        /** The longest poll interval (in seconds) a partition will back off to. */
+        private int maxPollInterval = 600;
+
+        /** The factor a partition's poll interval is multiplied or divided by on each cycle. */
+        private double multiplier = 2.0;
+      }
+
+      @Data
+      public static class SchedulingProperties {
+        /** How long (in seconds) a monitor waits before its first poll once in service. */
+        private int initialDelay = 0;
+
+        /**
+         * The fraction of a poll interval by which each poll is randomly shifted, ex: 0.1 polls a
+         * partition with a 60s interval every 54 to 66 seconds. The initial delay is lengthened by
+         * up to this fraction of the monitor's poll interval, so replicas start apart.
+         */
+        private double jitter = 0.0;
+
+        /**
+         * Defines whether a monitor's partitions are spread evenly across their poll interval,
+         * partition i of n being first polled i/n of an interval after the monitor starts, rather
+         * than all at once.
+         */
+        private boolean staggerPartitions = false;
+
+        /**
+         * Defines whether the partitions due in a cycle are polled busiest and most stale first,
+         * rather than in the order the monitor lists them, so that they are the ones not waiting
+         * on the others when the poll concurrency is limited.
+         */
+        private boolean prioritizePartitions = false;
+      }
+
+      @Data
+      public static class FreshnessProperties {
+        /**
+         * Defines whether the time of each partition's last successful commit is recorded in Redis,
+         * exposed as a lag gauge and checked by the health indicator.
+         */
+        private boolean enabled = false;
+
+        /**
+         * A partition is lagging, and reported as such by the health indicator, once its last
+         * successful commit is older than this many times its poll interval.
+         */
+        private double maxLagMultiplier = 3.0;
+
+        /** How often (in milliseconds) the last commit times are read back from Redis. */
+        private long refreshIntervalMillis = 15000;
+      }
+
+      public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+      }
     }
 
     @Data
@@ -145,6 +314,53 @@ public class IgorConfigurationProperties {
      * <p>TODO(rz): Refactor to Duration.
      */
     private int timeout = 30000;
+
+    /** Limits on the calls made to each build system master. */
+    @NestedConfigurationProperty
+    private DownstreamLimitsProperties limits = new DownstreamLimitsProperties();
+
+    @Data
+    public static class DownstreamLimitsProperties {
+      /**
+       * Defines whether calls to build system masters (Jenkins, Travis, GitLab CI, Concourse) are
+       * limited. Calls made while polling and calls made by the API (ex: Orca fetching build
+       * statuses) are limited separately, so neither can starve the other.
+       */
+      private boolean enabled = false;
+
+      /** Limits on the calls made to each master while polling. */
+      @NestedConfigurationProperty private LaneLimitsProperties poller = new LaneLimitsProperties();
+
+      /** Limits on the calls made to each master by the API. */
+      @NestedConfigurationProperty private LaneLimitsProperties api = new LaneLimitsProperties();
+
+      /** Limits overriding the above for individual masters, keyed by build service name. */
+      private Map<String, MasterLimitsProperties> masters = new HashMap<>();
+    }
+
+    @Data
+    public static class MasterLimitsProperties {
+      private LaneLimitsProperties poller;
+      private LaneLimitsProperties api;
+    }
+
+    @Data
+    public static class LaneLimitsProperties {
+      /** The maximum number of calls in flight against a single master (the bulkhead). */
+      private int maxConcurrentCalls = 10;
+
+      /** How long (in milliseconds) a call waits for one of the above to complete. */
+      private long maxWaitMillis = 0;
+
+      /**
+       * The rate of calls per second allowed against a single master, shared by every replica
+       * through Redis. 0 means unlimited.
+       */
+      private double callsPerSecond = 0;
+
+      /** The number of calls that may be made at once after the rate limiter has been idle. */
+      private int burst = 10;
+    }
   }
 
   @Data
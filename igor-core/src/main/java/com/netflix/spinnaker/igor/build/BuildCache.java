@@ -16,59 +16,96 @@
 package com.netflix.spinnaker.igor.build;
 
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.jfr.RedisCommandEvent;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-/** Shared cache of build details */
+/**
+ * Shared cache of build details.
+ *
+ * <p>The jobs and tracked builds of each master are also listed in index sorted sets, scored by
+ * the time their keys expire, so that listing them doesn't scan the whole keyspace. Keys written
+ * before the indexes existed are found by a scan the first time a master's index is read, which
+ * backfills it.
+ */
 @Service
 public class BuildCache {
 
   private static final String ID = "builds";
+  private static final String COMPLETED = "completed";
+  private static final String DEPRECATED = "deprecated";
+  private static final String TRACK = "track";
 
   private final RedisClientDelegate redisClientDelegate;
   private final IgorConfigurationProperties igorConfigurationProperties;
+  private final TypeaheadIndex typeaheadIndex;
 
   @Autowired
   public BuildCache(
       RedisClientDelegate redisClientDelegate,
       IgorConfigurationProperties igorConfigurationProperties) {
-    this.redisClientDelegate = redisClientDelegate;
+    this.redisClientDelegate = RedisCommandEvent.traced("buildCache", redisClientDelegate);
     this.igorConfigurationProperties = igorConfigurationProperties;
+    this.typeaheadIndex =
+        new TypeaheadIndex(this.redisClientDelegate, () -> baseKey() + ":typeahead");
   }
 
   public List<String> getJobNames(String master) {
-    List<String> jobs = new ArrayList<>();
-    redisClientDelegate.withKeyScan(
-        baseKey() + ":completed:" + master + ":*",
-        1000,
-        page ->
-            jobs.addAll(
-                page.getResults().stream()
-                    .map(BuildCache::extractJobName)
-                    .collect(Collectors.toList())));
+    List<String> jobs =
+        getIndexed(
+            master,
+            COMPLETED,
+            baseKey() + ":completed:" + master + ":*",
+            BuildCache::extractJobName);
     jobs.sort(Comparator.naturalOrder());
     return jobs;
   }
 
   public List<String> getTypeaheadResults(String search) {
-    var results = new ArrayList<String>();
-    redisClientDelegate.withKeyScan(
-        baseKey() + ":*:*:*" + search.toUpperCase() + "*:*",
-        1000,
-        page ->
-            results.addAll(
-                page.getResults().stream()
-                    .map(BuildCache::extractTypeaheadResult)
-                    .collect(Collectors.toList())));
-    results.sort(Comparator.naturalOrder());
-    return results;
+    return getTypeaheadResults(search, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the {@code master:job} entries whose job name contains {@code search}, ignoring case.
+   *
+   * @param master only returns the jobs of this master, if set
+   * @param limit returns at most this many entries
+   */
+  public List<String> getTypeaheadResults(String search, @Nullable String master, int limit) {
+    if (!typeaheadIndex.isBackfilled()) {
+      backfillTypeaheadIndex();
+    }
+    return typeaheadIndex.search(search, master, limit);
+  }
+
+  /** Indexes the jobs cached before the typeahead index existed. */
+  private void backfillTypeaheadIndex() {
+    for (String state : List.of("completed", "running", TRACK)) {
+      redisClientDelegate.withKeyScan(
+          baseKey() + ":" + state + ":*",
+          1000,
+          page -> {
+            for (String key : page.getResults()) {
+              long ttl = getTTL(key);
+              if (ttl == -2) {
+                continue;
+              }
+              String[] entry = extractTypeaheadResult(key).split(":", 2);
+              typeaheadIndex.add(entry[0], entry[1], ttl < 0 ? Long.MAX_VALUE : expiresAt(ttl));
+            }
+          });
+    }
+    typeaheadIndex.backfilled();
   }
 
   public long getLastBuild(String master, String job, boolean running) {
@@ -94,7 +131,11 @@ public class BuildCache {
         });
   }
 
-  public void setTTL(String key, int ttlSeconds) {
+  /**
+   * Expires a key. Only for keys whose index score is set to the same expiry, or the index would
+   * keep listing them past it (or drop them before it).
+   */
+  private void setTTL(String key, int ttlSeconds) {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.expire(key, ttlSeconds);
@@ -105,19 +146,17 @@ public class BuildCache {
     if (!building) {
       setBuild(makeKey(master, job), lastBuild, false, master, job, ttl);
     }
-    storeLastBuild(makeKey(master, job, building), lastBuild, ttl);
+    storeLastBuild(makeKey(master, job, building), lastBuild, building, master, job, ttl);
+    typeaheadIndex.add(master, job, expiresAt(ttl));
   }
 
   public List<String> getDeprecatedJobNames(String master) {
-    List<String> jobs = new ArrayList<>();
-    redisClientDelegate.withKeyScan(
-        baseKey() + ":" + master + ":*",
-        1000,
-        page ->
-            jobs.addAll(
-                page.getResults().stream()
-                    .map(BuildCache::extractDeprecatedJobName)
-                    .collect(Collectors.toList())));
+    List<String> jobs =
+        getIndexed(
+            master,
+            DEPRECATED,
+            baseKey() + ":" + master + ":*",
+            BuildCache::extractDeprecatedJobName);
     jobs.sort(Comparator.naturalOrder());
     return jobs;
   }
@@ -145,16 +184,14 @@ public class BuildCache {
   }
 
   public List<Map<String, String>> getTrackedBuilds(String master) {
-    List<Map<String, String>> builds = new ArrayList<>();
-    redisClientDelegate.withKeyScan(
-        baseKey() + ":track:" + master + ":*",
-        1000,
-        page ->
-            builds.addAll(
-                page.getResults().stream()
-                    .map(BuildCache::getTrackedBuild)
-                    .collect(Collectors.toList())));
-    return builds;
+    return getIndexed(
+            master,
+            TRACK,
+            baseKey() + ":track:" + master + ":*",
+            key -> extractJobName(key) + ":" + extractBuildIdFromTrackingKey(key))
+        .stream()
+        .map(BuildCache::getTrackedBuild)
+        .collect(Collectors.toList());
   }
 
   public void setTracking(String master, String job, long buildId, int ttlSeconds) {
@@ -162,8 +199,10 @@ public class BuildCache {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.set(key, "marked as running");
+          c.zadd(makeIndexKey(master, TRACK), expiresAt(ttlSeconds), job + ":" + buildId);
         });
     setTTL(key, ttlSeconds);
+    typeaheadIndex.add(master, job, expiresAt(ttlSeconds));
   }
 
   public void deleteTracking(String master, String job, long buildId) {
@@ -171,30 +210,85 @@ public class BuildCache {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.del(key);
+          c.zrem(makeIndexKey(master, TRACK), job + ":" + buildId);
         });
   }
 
-  private static Map<String, String> getTrackedBuild(String key) {
+  private static Map<String, String> getTrackedBuild(String member) {
+    int separator = member.lastIndexOf(':');
     Map<String, String> build = new HashMap<>();
-    build.put("job", extractJobName(key));
-    build.put("buildId", extractBuildIdFromTrackingKey(key));
+    build.put("job", member.substring(0, separator));
+    build.put("buildId", member.substring(separator + 1));
     return build;
   }
 
+  /**
+   * Lists the unexpired members of a master's index, or scans for the keys it indexes if it has
+   * yet to be backfilled, backfilling it with what is found.
+   */
+  private List<String> getIndexed(
+      String master, String index, String pattern, Function<String, String> member) {
+    String indexKey = makeIndexKey(master, index);
+    String backfilled = index + ":" + master;
+    boolean isBackfilled =
+        redisClientDelegate.withCommandsClient(c -> c.sismember(makeBackfilledKey(), backfilled));
+    if (isBackfilled) {
+      long now = System.currentTimeMillis();
+      return redisClientDelegate.withCommandsClient(
+          c -> {
+            c.zremrangeByScore(indexKey, 0, now);
+            return new ArrayList<>(c.zrange(indexKey, 0, -1));
+          });
+    }
+
+    List<String> members = new ArrayList<>();
+    redisClientDelegate.withKeyScan(
+        pattern,
+        1000,
+        page ->
+            redisClientDelegate.withCommandsClient(
+                c -> {
+                  for (String key : page.getResults()) {
+                    long ttl = c.ttl(key);
+                    if (ttl == -2) {
+                      // expired since it was scanned
+                      continue;
+                    }
+                    String indexed = member.apply(key);
+                    members.add(indexed);
+                    c.zadd(indexKey, ttl < 0 ? Long.MAX_VALUE : expiresAt(ttl), indexed);
+                  }
+                }));
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          c.sadd(makeBackfilledKey(), backfilled);
+        });
+    return members;
+  }
+
+  private static double expiresAt(long ttlSeconds) {
+    return System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+  }
+
   private void setBuild(
       String key, long lastBuild, boolean building, String master, String job, int ttl) {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.hset(key, "lastBuildLabel", Long.toString(lastBuild));
           c.hset(key, "lastBuildBuilding", Boolean.toString(building));
+          c.zadd(makeIndexKey(master, DEPRECATED), expiresAt(ttl), job);
         });
     setTTL(key, ttl);
   }
 
-  private void storeLastBuild(String key, long lastBuild, int ttl) {
+  private void storeLastBuild(
+      String key, long lastBuild, boolean building, String master, String job, int ttl) {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.set(key, Long.toString(lastBuild));
+          if (!building) {
+            c.zadd(makeIndexKey(master, COMPLETED), expiresAt(ttl), job);
+          }
         });
     setTTL(key, ttl);
   }
@@ -212,6 +306,14 @@ public class BuildCache {
     return baseKey() + ":track:" + master + ":" + job.toUpperCase() + ":" + job + ":" + buildId;
   }
 
+  protected String makeIndexKey(String master, String index) {
+    return baseKey() + ":index:" + index + ":" + master;
+  }
+
+  private String makeBackfilledKey() {
+    return baseKey() + ":index:backfilled";
+  }
+
   private static String extractJobName(String key) {
     return key.split(":")[5];
   }
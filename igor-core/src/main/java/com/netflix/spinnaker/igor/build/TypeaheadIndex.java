@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.build;
+
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * A substring index of the jobs of every master, answering typeahead queries without scanning the
+ * keyspace. Each job is listed, as {@code master:job}, in a sorted set per trigram of its upper
+ * cased name; a query reads the set of its rarest trigram and keeps the jobs containing the whole
+ * query. Queries shorter than a trigram read the jobs of each master instead.
+ *
+ * <p>Members are scored by the time the job's cache entry expires, so that jobs whose entries
+ * expired drop out of the results and are pruned as they are read.
+ */
+public class TypeaheadIndex {
+  static final int GRAM = 3;
+
+  private final RedisClientDelegate redisClientDelegate;
+  private final Supplier<String> namespace;
+
+  /**
+   * @param namespace the prefix of the index's keys, ex: {@code igor:builds:typeahead}
+   */
+  public TypeaheadIndex(RedisClientDelegate redisClientDelegate, Supplier<String> namespace) {
+    this.redisClientDelegate = redisClientDelegate;
+    this.namespace = namespace;
+  }
+
+  /**
+   * Indexes a job until {@code expiresAt} (epoch millis). The trigrams of a job already indexed
+   * are only rewritten once less than half of its new lifetime is left on them, so that indexing
+   * on every write of a job costs a single read.
+   */
+  public void add(String master, String job, double expiresAt) {
+    String masterKey = makeMasterKey(master);
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          Double indexedUntil = c.zscore(masterKey, job);
+          long now = System.currentTimeMillis();
+          if (indexedUntil != null && indexedUntil >= expiresAt - (expiresAt - now) / 2) {
+            return;
+          }
+          String member = master + ":" + job;
+          for (String gram : grams(job)) {
+            c.zadd(makeGramKey(gram), expiresAt, member);
+          }
+          c.zadd(masterKey, expiresAt, job);
+          c.sadd(makeMastersKey(), master);
+        });
+  }
+
+  /** Removes a job from the index. */
+  public void remove(String master, String job) {
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          String member = master + ":" + job;
+          for (String gram : grams(job)) {
+            c.zrem(makeGramKey(gram), member);
+          }
+          c.zrem(makeMasterKey(master), job);
+        });
+  }
+
+  /**
+   * Returns the {@code master:job} entries whose job contains {@code query}, ignoring case, in
+   * natural order.
+   *
+   * @param master only returns the jobs of this master, if set
+   * @param limit returns at most this many entries
+   */
+  public List<String> search(String query, @Nullable String master, int limit) {
+    String search = query.toUpperCase();
+    long now = System.currentTimeMillis();
+    List<String> results =
+        search.length() < GRAM
+            ? searchMasters(master, now)
+            : searchGrams(search, now).stream()
+                .filter(it -> master == null || it.startsWith(master + ":"))
+                .collect(Collectors.toList());
+    return results.stream()
+        .filter(it -> it.substring(it.indexOf(':') + 1).toUpperCase().contains(search))
+        .sorted(Comparator.naturalOrder())
+        .limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  /** Whether the jobs cached before the index existed have been indexed. */
+  public boolean isBackfilled() {
+    return redisClientDelegate.withCommandsClient(c -> c.exists(makeBackfilledKey()));
+  }
+
+  /** Records that the jobs cached before the index existed have been indexed. */
+  public void backfilled() {
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          c.set(makeBackfilledKey(), Long.toString(System.currentTimeMillis()));
+        });
+  }
+
+  private Collection<String> searchGrams(String search, long now) {
+    return redisClientDelegate.withCommandsClient(
+        c -> {
+          String rarest = null;
+          long rarestSize = Long.MAX_VALUE;
+          for (String gram : grams(search)) {
+            long size = c.zcard(makeGramKey(gram));
+            if (size < rarestSize) {
+              rarest = gram;
+              rarestSize = size;
+            }
+          }
+          if (rarestSize == 0) {
+            return Collections.emptySet();
+          }
+          c.zremrangeByScore(makeGramKey(rarest), 0, now);
+          return c.zrangeByScore(makeGramKey(rarest), now, Double.MAX_VALUE);
+        });
+  }
+
+  private List<String> searchMasters(@Nullable String master, long now) {
+    return redisClientDelegate.withCommandsClient(
+        c -> {
+          Set<String> masters =
+              master != null ? Collections.singleton(master) : c.smembers(makeMastersKey());
+          List<String> results = new ArrayList<>();
+          for (String it : masters) {
+            c.zremrangeByScore(makeMasterKey(it), 0, now);
+            c.zrangeByScore(makeMasterKey(it), now, Double.MAX_VALUE)
+                .forEach(job -> results.add(it + ":" + job));
+          }
+          return results;
+        });
+  }
+
+  static Set<String> grams(String value) {
+    String upper = value.toUpperCase();
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM <= upper.length(); i++) {
+      grams.add(upper.substring(i, i + GRAM));
+    }
+    return grams;
+  }
+
+  private String makeGramKey(String gram) {
+    return namespace.get() + ":gram:" + gram;
+  }
+
+  private String makeMasterKey(String master) {
+    return namespace.get() + ":master:" + master;
+  }
+
+  private String makeMastersKey() {
+    return namespace.get() + ":masters";
+  }
+
+  private String makeBackfilledKey() {
+    return namespace.get() + ":backfilled";
+  }
+}
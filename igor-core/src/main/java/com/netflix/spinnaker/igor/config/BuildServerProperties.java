@@ -97,5 +97,24 @@ public interface BuildServerProperties<T extends BuildServerProperties.Host> {
      * @return The permissions needed to access this build service host
      */
     Permissions.Builder getPermissions();
+
+    /**
+     * Get the poll interval (in seconds) of this build service host, overriding the global {@code
+     * spinnaker.build.pollInterval}.
+     *
+     * @return The poll interval, or null to use the monitor's poll interval
+     */
+    default Integer getPollInterval() {
+      return null;
+    }
+
+    /**
+     * Get how long (in seconds) this build service host stays locked while being polled.
+     *
+     * @return The lock duration, or null to use the host's poll interval
+     */
+    default Integer getLockDuration() {
+      return null;
+    }
   }
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Flight Recorder event emitted for every HTTP call to a downstream service (ex: Jenkins). */
+@Name("com.netflix.spinnaker.igor.DownstreamCall")
+@Label("Downstream Call")
+@Category({"Spinnaker", "Igor"})
+@Description("An HTTP call made by igor to a build server or other downstream service")
+@StackTrace(false)
+public class DownstreamCallEvent extends jdk.jfr.Event {
+  @Label("Host")
+  public String host;
+
+  @Label("Method")
+  public String method;
+
+  @Label("Path")
+  public String path;
+
+  @Label("Status")
+  @Description("The HTTP status of the response, or -1 if the call failed without one")
+  public int status;
+
+  @Label("Partition")
+  @Description("The partition being polled when the call was made, if any")
+  public String partition;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.jfr;
+
+import com.netflix.spinnaker.igor.polling.PollContext;
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records every request of the client it is added to as a {@link DownstreamCallEvent}. Requests
+ * made while polling are attributed to the partition being polled.
+ */
+public class DownstreamCallEventInterceptor implements Interceptor {
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    DownstreamCallEvent event = new DownstreamCallEvent();
+    if (!event.isEnabled()) {
+      return chain.proceed(chain.request());
+    }
+
+    Request request = chain.request();
+    int status = -1;
+    event.begin();
+    try {
+      Response response = chain.proceed(request);
+      status = response.code();
+      return response;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        PollContext ctx = PollContext.current();
+        event.host = request.url().host();
+        event.method = request.method();
+        event.path = request.url().encodedPath();
+        event.status = status;
+        event.partition = ctx == null ? null : ctx.getPartitionKey();
+        event.commit();
+      }
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** Flight Recorder event emitted for every poll of a partition. */
+@Name("com.netflix.spinnaker.igor.PollCycle")
+@Label("Poll Cycle")
+@Category({"Spinnaker", "Igor"})
+@Description("A poll of a single partition (ex: a Jenkins master) by a polling monitor")
+@StackTrace(false)
+public class PollCycleEvent extends jdk.jfr.Event {
+  @Label("Monitor")
+  public String monitor;
+
+  @Label("Partition")
+  public String partition;
+
+  @Label("Outcome")
+  @Description("completed, overThreshold, deadlineExceeded or failed")
+  public String outcome;
+
+  @Label("Items Examined")
+  public int itemsExamined;
+
+  @Label("Items Emitted")
+  public int itemsEmitted;
+
+  @Label("Lock Wait")
+  @Timespan(Timespan.NANOSECONDS)
+  public long lockWaitTime;
+
+  @Label("Generate")
+  @Timespan(Timespan.NANOSECONDS)
+  public long generateTime;
+
+  @Label("Threshold Check")
+  @Timespan(Timespan.NANOSECONDS)
+  public long thresholdCheckTime;
+
+  @Label("Commit")
+  @Timespan(Timespan.NANOSECONDS)
+  public long commitTime;
+
+  @Label("Event Publish")
+  @Timespan(Timespan.NANOSECONDS)
+  public long eventPublishTime;
+}
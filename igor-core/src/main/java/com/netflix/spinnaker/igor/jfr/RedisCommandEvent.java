@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.jfr;
+
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event emitted for every use of a cache's {@link RedisClientDelegate}: a block of
+ * commands, a pipeline or a key scan.
+ */
+@Name("com.netflix.spinnaker.igor.RedisCommand")
+@Label("Redis Command")
+@Category({"Spinnaker", "Igor"})
+@Description("A Redis operation of one of igor's caches")
+@StackTrace(false)
+public class RedisCommandEvent extends jdk.jfr.Event {
+  @Label("Cache")
+  public String cache;
+
+  @Label("Operation")
+  @Description("The cache method that used Redis (ex: getLastBuild)")
+  public String operation;
+
+  @Label("Command")
+  @Description("How Redis was used (ex: withCommandsClient, withPipeline, withKeyScan)")
+  public String command;
+
+  /**
+   * Wraps a cache's {@link RedisClientDelegate} so that its uses are recorded as events. The
+   * overhead is a single check while Flight Recorder is not recording these events.
+   */
+  public static RedisClientDelegate traced(String cache, RedisClientDelegate delegate) {
+    return (RedisClientDelegate)
+        Proxy.newProxyInstance(
+            RedisClientDelegate.class.getClassLoader(),
+            new Class<?>[] {RedisClientDelegate.class},
+            (proxy, method, args) -> {
+              String command = method.getName();
+              RedisCommandEvent event = new RedisCommandEvent();
+              boolean traced =
+                  event.isEnabled() && (command.startsWith("with") || command.startsWith("sync"));
+              if (traced) {
+                event.begin();
+              }
+              try {
+                return method.invoke(delegate, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              } finally {
+                if (traced) {
+                  event.end();
+                  if (event.shouldCommit()) {
+                    event.cache = cache;
+                    event.operation = callingMethod();
+                    event.command = command;
+                    event.commit();
+                  }
+                }
+              }
+            });
+  }
+
+  /** The method that called the proxy, only looked up for the events actually committed. */
+  private static String callingMethod() {
+    return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+        .walk(
+            frames ->
+                frames
+                    .filter(
+                        frame ->
+                            frame.getDeclaringClass() != RedisCommandEvent.class
+                                && !Proxy.isProxyClass(frame.getDeclaringClass()))
+                    .findFirst()
+                    .map(StackWalker.StackFrame::getMethodName)
+                    .orElse(null));
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.limits;
+
+import com.netflix.spinnaker.igor.polling.PollContext;
+
+/** Who a call to a build system master is made for. Each is limited separately. */
+public enum DownstreamLane {
+  POLLER("poller"),
+  API("api");
+
+  private final String tag;
+
+  DownstreamLane(String tag) {
+    this.tag = tag;
+  }
+
+  public String getTag() {
+    return tag;
+  }
+
+  /** Calls made while polling a partition belong to the poller, any other call to the API. */
+  public static DownstreamLane current() {
+    return PollContext.current() != null ? POLLER : API;
+  }
+}
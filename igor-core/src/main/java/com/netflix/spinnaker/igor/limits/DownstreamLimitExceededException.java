@@ -0,0 +1,31 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.limits;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call to a build system master is denied, either because too many calls are in
+ * flight against it or because its rate limit has been reached. The call was never sent.
+ */
+public class DownstreamLimitExceededException extends IOException {
+
+  public DownstreamLimitExceededException(String master, DownstreamLane lane, String reason) {
+    super(
+        String.format(
+            "Call to %s denied for the %s (%s), try again later", master, lane.getTag(), reason));
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.limits;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Applies the {@link DownstreamLimiter} limits of a master to every call of its client. Denied
+ * calls fail fast with a {@link DownstreamLimitExceededException} without reaching the master.
+ */
+class DownstreamLimitInterceptor implements Interceptor {
+  private final DownstreamLimiter limiter;
+  private final String master;
+
+  DownstreamLimitInterceptor(DownstreamLimiter limiter, String master) {
+    this.limiter = limiter;
+    this.master = master;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Runnable release = limiter.acquire(master, DownstreamLane.current());
+    try {
+      return chain.proceed(chain.request());
+    } finally {
+      release.run();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.limits;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.ClientProperties.DownstreamLimitsProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.ClientProperties.LaneLimitsProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.ClientProperties.MasterLimitsProperties;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import okhttp3.Interceptor;
+
+/**
+ * Limits the calls made to each build system master with a bulkhead, bounding the calls in flight
+ * from this replica, and a token bucket shared by every replica through Redis, bounding their rate.
+ * Calls made while polling and calls made by the API have limits of their own, so that Orca
+ * fetching build statuses can't starve the poller of a small master, nor the other way around.
+ */
+public class DownstreamLimiter {
+  private static final String ID = "downstream:bucket";
+
+  private final RedisClientDelegate redisClientDelegate;
+  private final IgorConfigurationProperties igorProperties;
+  private final Registry registry;
+  private final Id deniedId;
+  private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+
+  public DownstreamLimiter(
+      RedisClientDelegate redisClientDelegate,
+      IgorConfigurationProperties igorProperties,
+      Registry registry) {
+    this.redisClientDelegate = redisClientDelegate;
+    this.igorProperties = igorProperties;
+    this.registry = registry;
+    this.deniedId = registry.createId("downstream.limits.denied");
+  }
+
+  /** Returns an interceptor limiting the calls of a client to the given master. */
+  public Interceptor interceptor(String master) {
+    return new DownstreamLimitInterceptor(this, master);
+  }
+
+  /**
+   * Acquires a permit for a call to a master, to be released once the call completes.
+   *
+   * @throws DownstreamLimitExceededException if the call must not be made
+   */
+  Runnable acquire(String master, DownstreamLane lane) throws DownstreamLimitExceededException {
+    Limits limits = getLimits(master, lane);
+    if (!limits.bulkhead.tryAcquirePermission()) {
+      throw denied(master, lane, "bulkheadFull");
+    }
+    if (limits.bucket != null && !limits.bucket.tryAcquire()) {
+      limits.bulkhead.releasePermission();
+      throw denied(master, lane, "rateLimited");
+    }
+    return limits.bulkhead::onComplete;
+  }
+
+  private DownstreamLimitExceededException denied(
+      String master, DownstreamLane lane, String reason) {
+    registry
+        .counter(deniedId.withTags("master", master, "lane", lane.getTag(), "reason", reason))
+        .increment();
+    return new DownstreamLimitExceededException(master, lane, reason);
+  }
+
+  private Limits getLimits(String master, DownstreamLane lane) {
+    return limits.computeIfAbsent(
+        master + ":" + lane.getTag(),
+        name -> {
+          LaneLimitsProperties properties = getProperties(master, lane);
+          Bulkhead bulkhead =
+              Bulkhead.of(
+                  name,
+                  BulkheadConfig.custom()
+                      .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                      .maxWaitDuration(Duration.ofMillis(properties.getMaxWaitMillis()))
+                      .build());
+          RedisTokenBucket bucket =
+              properties.getCallsPerSecond() > 0
+                  ? new RedisTokenBucket(
+                      redisClientDelegate,
+                      key(master, lane),
+                      properties.getCallsPerSecond(),
+                      properties.getBurst())
+                  : null;
+          return new Limits(bulkhead, bucket);
+        });
+  }
+
+  private LaneLimitsProperties getProperties(String master, DownstreamLane lane) {
+    DownstreamLimitsProperties properties = igorProperties.getClient().getLimits();
+    Optional<MasterLimitsProperties> overrides =
+        Optional.ofNullable(properties.getMasters().get(master));
+    return lane == DownstreamLane.POLLER
+        ? overrides.map(MasterLimitsProperties::getPoller).orElse(properties.getPoller())
+        : overrides.map(MasterLimitsProperties::getApi).orElse(properties.getApi());
+  }
+
+  private String key(String master, DownstreamLane lane) {
+    return igorProperties.getSpinnaker().getJedis().getPrefix()
+        + ":"
+        + ID
+        + ":"
+        + master
+        + ":"
+        + lane.getTag();
+  }
+
+  private static class Limits {
+    private final Bulkhead bulkhead;
+    @Nullable private final RedisTokenBucket bucket;
+
+    Limits(Bulkhead bulkhead, @Nullable RedisTokenBucket bucket) {
+      this.bulkhead = bulkhead;
+      this.bucket = bucket;
+    }
+  }
+}
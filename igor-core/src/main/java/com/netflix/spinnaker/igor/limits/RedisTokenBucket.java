@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.limits;
+
+import com.netflix.spinnaker.igor.util.RedisScript;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A token bucket kept in Redis, so that every replica draws from the same one. Tokens are refilled
+ * lazily from the time of the last draw, which is atomic as it happens in a single script. Time is
+ * read from the Redis server, so clock skew between replicas doesn't skew the refill.
+ */
+class RedisTokenBucket {
+  private static final Logger log = LoggerFactory.getLogger(RedisTokenBucket.class);
+
+  private static final RedisScript SCRIPT =
+      new RedisScript(
+          // replicate the writes rather than the script, as it reads the (non deterministic) time
+          "if redis.replicate_commands then redis.replicate_commands() end\n"
+              + "local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'updatedAt')\n"
+              + "local rate = tonumber(ARGV[1])\n"
+              + "local burst = tonumber(ARGV[2])\n"
+              + "local time = redis.call('TIME')\n"
+              + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+              + "local tokens = tonumber(bucket[1]) or burst\n"
+              + "local updatedAt = tonumber(bucket[2]) or now\n"
+              + "tokens = math.min(burst, tokens + math.max(0, now - updatedAt) * rate / 1000)\n"
+              + "local allowed = 0\n"
+              + "if tokens >= 1 then\n"
+              + "  tokens = tokens - 1\n"
+              + "  allowed = 1\n"
+              + "end\n"
+              + "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens),"
+              + " 'updatedAt', tostring(now))\n"
+              + "redis.call('PEXPIRE', KEYS[1], math.ceil(burst * 1000 / rate) + 1000)\n"
+              + "return allowed\n");
+
+  private final RedisClientDelegate redisClientDelegate;
+  private final String key;
+  private final double callsPerSecond;
+  private final int burst;
+
+  RedisTokenBucket(
+      RedisClientDelegate redisClientDelegate, String key, double callsPerSecond, int burst) {
+    this.redisClientDelegate = redisClientDelegate;
+    this.key = key;
+    this.callsPerSecond = callsPerSecond;
+    this.burst = Math.max(1, burst);
+  }
+
+  /**
+   * Takes a token from the bucket if there is one. Calls are let through when Redis can't be
+   * reached or doesn't support scripts, as failing them all would be worse than not limiting them.
+   */
+  boolean tryAcquire() {
+    if (!redisClientDelegate.supportsScripting()) {
+      return true;
+    }
+    try {
+      Object allowed =
+          SCRIPT.eval(
+              redisClientDelegate,
+              Collections.singletonList(key),
+              Arrays.asList(Double.toString(callsPerSecond), Integer.toString(burst)));
+      return Long.valueOf(1).equals(allowed);
+    } catch (Exception e) {
+      log.warn("Failed to draw from the token bucket {}, letting the call through", key, e);
+      return true;
+    }
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.limits;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.igor.polling.PollContext;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.MDC;
+import retrofit2.Call;
+
+/**
+ * Hedges the reads made to a build system master: when a call hasn't answered within the p95 of
+ * the latencies recently observed for that master, an identical call is sent and whichever of the
+ * two succeeds first wins, the other one being cancelled. The hedges are paid for by a budget
+ * growing with every call made, so that they never add more than a configured share of load to a
+ * master, including one that is slow across the board.
+ *
+ * <p>The call itself is made on the calling thread; only hedges run on a pool of this master's,
+ * which is bounded so that a slow master can't pile threads up. A hedge that doesn't fit in it is
+ * not sent.
+ */
+public class RequestHedger {
+  private static final int WINDOW = 256;
+  private static final int MIN_SAMPLES = 20;
+  private static final double MAX_BUDGET = 10;
+  private static final int MAX_CONCURRENT_HEDGES = 8;
+
+  private final double extraLoadRatio;
+  private final long minDelayMillis;
+  private final ScheduledExecutorService timer;
+  private final ThreadPoolExecutor executor;
+  private final Counter hedgedCounter;
+  private final Counter wonCounter;
+
+  private final long[] latencies = new long[WINDOW];
+  private int samples;
+  private int next;
+  private long p95Millis;
+  private boolean stale;
+  private double budget;
+
+  public RequestHedger(
+      String master, int maxExtraLoadPercent, long minDelayMillis, Registry registry) {
+    this.extraLoadRatio = Math.max(0, maxExtraLoadPercent) / 100d;
+    this.minDelayMillis = Math.max(0, minDelayMillis);
+    this.timer =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "hedge-" + master + "-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    AtomicLong threads = new AtomicLong();
+    this.executor =
+        new ThreadPoolExecutor(
+            0,
+            MAX_CONCURRENT_HEDGES,
+            60,
+            TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            r -> {
+              Thread thread = new Thread(r, "hedge-" + master + "-" + threads.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.hedgedCounter = registry.counter("downstream.hedging.hedged", "master", master);
+    this.wonCounter = registry.counter("downstream.hedging.won", "master", master);
+  }
+
+  /**
+   * Executes a call, hedging it once it is slower than the master's p95 and the budget allows.
+   * Only the latency of the call itself is recorded: when a hedge wins, the call was cancelled
+   * after running for as long as it did, which is all that's known of it.
+   *
+   * @param execution executes a call and returns its result, it is applied to the call given and
+   *     to a clone of it when hedging
+   */
+  public <T> T execute(Call<T> call, Function<Call<T>, T> execution) {
+    long startedAt = System.nanoTime();
+    long delayMillis = hedgeDelayMillis();
+    if (delayMillis < 0) {
+      T result = execution.apply(call);
+      record(startedAt);
+      return result;
+    }
+
+    AtomicBoolean settled = new AtomicBoolean();
+    CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+    // carry the request headers and the polled partition over to the thread making the hedge
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+    PollContext pollContext = PollContext.current();
+    ScheduledFuture<Boolean> hedging =
+        timer.schedule(
+            () -> hedge(call, execution, settled, hedgeResult, mdc, pollContext),
+            delayMillis,
+            TimeUnit.MILLISECONDS);
+    try {
+      T value = execution.apply(call);
+      settled.set(true);
+      record(startedAt);
+      return value;
+    } catch (Exception e) {
+      settled.set(true);
+      record(startedAt);
+      // past its delay, the hedge is let decide whether it's sent before the call is given up
+      if (!hedging.cancel(false) && isSent(hedging)) {
+        try {
+          T value = await(hedgeResult);
+          wonCounter.increment();
+          return value;
+        } catch (RuntimeException hedgeFailure) {
+          e.addSuppressed(hedgeFailure);
+        }
+      }
+      throw e;
+    } finally {
+      hedging.cancel(false);
+      hedgeResult.cancel(false);
+    }
+  }
+
+  private static boolean isSent(ScheduledFuture<Boolean> hedging) {
+    try {
+      return hedging.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException e) {
+      return false;
+    }
+  }
+
+  /** Sends the hedge of a call that hasn't answered yet, cancelling the call if the hedge wins. */
+  private <T> boolean hedge(
+      Call<T> call,
+      Function<Call<T>, T> execution,
+      AtomicBoolean settled,
+      CompletableFuture<T> hedgeResult,
+      Map<String, String> mdc,
+      PollContext pollContext) {
+    if (settled.get() || !tryHedge()) {
+      return false;
+    }
+    Call<T> hedge = call.clone();
+    Runnable attempt =
+        () -> {
+          try {
+            T value = execution.apply(hedge);
+            if (hedgeResult.complete(value)) {
+              call.cancel();
+            }
+          } catch (Throwable t) {
+            hedgeResult.completeExceptionally(t);
+          }
+        };
+    try {
+      executor.execute(
+          () -> {
+            if (mdc != null) {
+              MDC.setContextMap(mdc);
+            }
+            try {
+              if (pollContext != null) {
+                pollContext.runBound(attempt);
+              } else {
+                attempt.run();
+              }
+            } finally {
+              MDC.clear();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      refund();
+      return false;
+    }
+    hedgedCounter.increment();
+    // a hedge still running once the call is over (ex: the call won) is cancelled
+    hedgeResult.whenComplete((value, t) -> hedge.cancel());
+    return true;
+  }
+
+  private static <T> T await(CompletableFuture<T> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /** Returns how long to wait for a call before hedging it, or -1 if it can't be hedged. */
+  private synchronized long hedgeDelayMillis() {
+    budget = Math.min(MAX_BUDGET, budget + extraLoadRatio);
+    if (samples < MIN_SAMPLES || budget < 1) {
+      return -1;
+    }
+    if (stale) {
+      long[] sorted = Arrays.copyOf(latencies, samples);
+      Arrays.sort(sorted);
+      p95Millis = sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+      stale = false;
+    }
+    return Math.max(minDelayMillis, p95Millis);
+  }
+
+  private synchronized boolean tryHedge() {
+    if (budget < 1) {
+      return false;
+    }
+    budget -= 1;
+    return true;
+  }
+
+  private synchronized void refund() {
+    budget = Math.min(MAX_BUDGET, budget + 1);
+  }
+
+  private synchronized void record(long startedAt) {
+    latencies[next] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    next = (next + 1) % WINDOW;
+    samples = Math.min(WINDOW, samples + 1);
+    stale = true;
+  }
+}
@@ -20,29 +20,61 @@ import static java.lang.String.format;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.SpinnakerProperties.BuildProperties.AdaptivePollingProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.SpinnakerProperties.BuildProperties.ExecutionMode;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.SpinnakerProperties.BuildProperties.MonitorPollingProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.SpinnakerProperties.BuildProperties.PartitionPollingProperties;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties.SpinnakerProperties.BuildProperties.SchedulingProperties;
+import com.netflix.spinnaker.igor.jfr.PollCycleEvent;
+import com.netflix.spinnaker.igor.polling.PollHistory.LockOutcome;
 import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
 import com.netflix.spinnaker.kork.discovery.RemoteStatusChangedEvent;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
+import java.lang.management.ManagementFactory;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
 import net.logstash.logback.argument.StructuredArguments;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 public abstract class CommonPollingMonitor<I extends DeltaItem, T extends PollingDelta<I>>
     implements PollingMonitor, PollAccess {
 
+  /** The share of its lock duration a poll may spend generating its delta; see startDeadline. */
+  private static final double GENERATION_SHARE_OF_LOCK = 0.8;
+
   protected final IgorConfigurationProperties igorProperties;
   protected final Registry registry;
   protected final Id missedNotificationId;
@@ -50,6 +82,12 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
   private final AtomicLong lastPoll = new AtomicLong();
   private final Optional<LockService> lockService;
   private ScheduledFuture<?> monitor;
+  private ExecutorService partitionExecutor;
+  private ThreadPoolTaskScheduler laneScheduler;
+  private final AtomicInteger laneActiveThreads = new AtomicInteger();
+  private final ThreadLocal<Boolean> inLane = ThreadLocal.withInitial(() -> false);
+  private final AtomicBoolean laneTracked = new AtomicBoolean();
+  private final Map<String, Semaphore> partitionPermits = new ConcurrentHashMap<>();
   private final CommonPollingMonitorInstrumentation instrumentation;
   protected Logger log = LoggerFactory.getLogger(getClass());
   protected TaskScheduler scheduler;
@@ -57,6 +95,15 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
 
   private Map<String, AtomicInteger> itemsOverThresholdMap = new ConcurrentHashMap<>();
   private Map<String, AtomicInteger> itemsCachedMap = new ConcurrentHashMap<>();
+  private final Map<String, PartitionSchedule> partitionSchedules = new ConcurrentHashMap<>();
+  private final Map<String, PartitionSchedule> shadowSchedules = new ConcurrentHashMap<>();
+  private final Map<String, PollHistory> pollHistories = new ConcurrentHashMap<>();
+  private ShardingService shardingService;
+  private FreshnessService freshnessService;
+  private final AtomicInteger ownedPartitions = new AtomicInteger();
+  private final AtomicInteger totalPartitions = new AtomicInteger();
+  private volatile boolean shadow;
+  private final Set<String> shadowPartitions = ConcurrentHashMap.newKeySet();
 
   public CommonPollingMonitor(
       IgorConfigurationProperties igorProperties,
@@ -84,23 +131,98 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
     }
 
     initialize();
+    if (laneTracked.compareAndSet(false, true)) {
+      instrumentation.trackLane(
+          getName(),
+          this,
+          it -> it.laneActiveThreads.get(),
+          CommonPollingMonitor::getLaneQueueDepth);
+    }
+    TaskScheduler cycleScheduler = isIsolateMonitors() ? getLaneScheduler() : scheduler;
     this.monitor =
-        scheduler.schedule(
-            () ->
-                instrumentation.trackPollCycleTime(
-                    this.getName(),
-                    () -> {
-                      if (isInService()) {
-                        poll(true);
-                        lastPoll.set(System.currentTimeMillis());
-                      } else {
-                        log.info(
-                            "not in service (lastPoll: {})",
-                            (lastPoll.get() == 0) ? "n/a" : lastPoll.toString());
-                        lastPoll.set(0);
-                      }
-                    }),
-            new PeriodicTrigger(getPollInterval(), TimeUnit.SECONDS));
+        cycleScheduler.schedule(
+            inLane(
+                () -> {
+                  Runnable cycle =
+                      () -> {
+                        if (isInService()) {
+                          poll(true);
+                          lastPoll.set(System.currentTimeMillis());
+                        } else {
+                          log.info(
+                              "not in service (lastPoll: {})",
+                              (lastPoll.get() == 0) ? "n/a" : lastPoll.toString());
+                          lastPoll.set(0);
+                        }
+                      };
+                  // the cycles of a monitor shadow polled as a whole aren't production ones
+                  if (isShadow()) {
+                    cycle.run();
+                  } else {
+                    instrumentation.trackPollCycleTime(this.getName(), cycle);
+                  }
+                }),
+            new PartitionScheduleTrigger(
+                partitionSchedules::values, this::getPollInterval, getInitialDelayMs()));
+  }
+
+  /** A scheduler of this monitor's own, so its poll cycles never wait on other monitors'. */
+  private synchronized TaskScheduler getLaneScheduler() {
+    if (laneScheduler == null) {
+      laneScheduler = new ThreadPoolTaskScheduler();
+      laneScheduler.setPoolSize(1);
+      laneScheduler.setThreadNamePrefix(getName() + "-cycle-");
+      laneScheduler.setDaemon(true);
+      laneScheduler.initialize();
+    }
+    return laneScheduler;
+  }
+
+  /** Counts the task as an active thread of this monitor's lane while it runs. */
+  private Runnable inLane(Runnable task) {
+    return () -> {
+      laneActiveThreads.incrementAndGet();
+      inLane.set(true);
+      try {
+        task.run();
+      } finally {
+        inLane.remove();
+        laneActiveThreads.decrementAndGet();
+      }
+    };
+  }
+
+  /**
+   * Runs work that is handed off to the partition executor. The calling thread only waits on it
+   * meanwhile, so it isn't counted as an active thread of the lane; the tasks it submitted are.
+   */
+  private void handOff(Runnable work) {
+    boolean counted = inLane.get();
+    if (counted) {
+      laneActiveThreads.decrementAndGet();
+    }
+    try {
+      work.run();
+    } finally {
+      if (counted) {
+        laneActiveThreads.incrementAndGet();
+      }
+    }
+  }
+
+  /** Partitions or items waiting for a thread of this monitor's partition executor. */
+  private synchronized int getLaneQueueDepth() {
+    return partitionExecutor instanceof ThreadPoolExecutor
+        ? ((ThreadPoolExecutor) partitionExecutor).getQueue().size()
+        : 0;
+  }
+
+  /** The initial delay, lengthened by a random share of the poll interval when jittering. */
+  private long getInitialDelayMs() {
+    SchedulingProperties scheduling = getSchedulingProperties();
+    long jitterMs = (long) (getPollInterval() * 1000L * scheduling.getJitter());
+    return TimeUnit.SECONDS.toMillis(scheduling.getInitialDelay())
+        + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs) : 0);
   }
 
   @PreDestroy
@@ -109,10 +231,231 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
     if (monitor != null && !monitor.isDone()) {
       monitor.cancel(false);
     }
+    synchronized (this) {
+      if (partitionExecutor != null) {
+        partitionExecutor.shutdownNow();
+      }
+      if (laneScheduler != null) {
+        laneScheduler.shutdown();
+      }
+    }
   }
 
   protected void initialize() {}
 
+  @Autowired(required = false)
+  public void setShardingService(ShardingService shardingService) {
+    this.shardingService = shardingService;
+    instrumentation.trackPartitionOwnership(
+        ownedPartitions, totalPartitions, shardingService::getMemberCount, getName());
+  }
+
+  @Autowired(required = false)
+  public void setFreshnessService(FreshnessService freshnessService) {
+    this.freshnessService = freshnessService;
+    freshnessService.register(getName());
+  }
+
+  /**
+   * Returns the partitions (ex: masters, accounts) that make up a single poll cycle. Monitors that
+   * implement this don't need to override {@link #poll(boolean)}.
+   */
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public void poll(boolean sendEvents) {
+    pollPartitions(getPollContexts(sendEvents));
+  }
+
+  /**
+   * Polls the given partitions, fanning them out to this monitor's partition executor when more
+   * than one may be polled concurrently. Returns once every partition has been polled.
+   */
+  protected void pollPartitions(List<PollContext> pollContexts) {
+    List<PollContext> partitions =
+        pollContexts.stream()
+            .flatMap(ctx -> expandSubPartitions(ctx).stream())
+            .collect(Collectors.toList());
+
+    // fast-forwards poll everything; regular cycles only poll the owned partitions that are due,
+    // plus the partitions shadow polled, owned or not
+    partitions.forEach(ctx -> ctx.shadow = isShadowPoll(ctx));
+    List<PollContext> owned =
+        partitions.stream()
+            .filter(ctx -> ctx.shadow || ownsPartition(ctx))
+            .collect(Collectors.toList());
+    boolean fastForward = partitions.stream().anyMatch(ctx -> ctx.fastForward);
+    if (shardingService != null && !fastForward) {
+      ownedPartitions.set((int) owned.stream().filter(ctx -> !ctx.shadow).count());
+      totalPartitions.set(partitions.size());
+    }
+    if (freshnessService != null && !fastForward) {
+      freshnessService.retain(
+          getName(),
+          partitions.stream().map(PollContext::getPartitionKey).collect(Collectors.toList()));
+    }
+
+    long now = System.currentTimeMillis();
+    if (!fastForward && getSchedulingProperties().isStaggerPartitions()) {
+      staggerPartitions(owned, now);
+    }
+    List<PollContext> contexts =
+        owned.stream()
+            .filter(ctx -> ctx.fastForward || getPartitionSchedule(ctx).isDue(now))
+            .collect(Collectors.toList());
+    if (!fastForward && getSchedulingProperties().isPrioritizePartitions()) {
+      prioritizePartitions(contexts, now);
+    }
+
+    boolean virtual = getExecutionMode() == ExecutionMode.VIRTUAL;
+    int concurrency = getPollConcurrency();
+    if ((!virtual && concurrency <= 1) || contexts.size() <= 1) {
+      contexts.forEach(this::pollSingle);
+      return;
+    }
+
+    ExecutorService executor = getPartitionExecutor(concurrency);
+    handOff(
+        () -> {
+          List<Future<?>> futures = new ArrayList<>(contexts.size());
+          for (PollContext ctx : contexts) {
+            futures.add(executor.submit(inLane(() -> pollSingle(ctx))));
+          }
+          awaitAll(futures, i -> contexts.get(i).getPartitionKey());
+        });
+  }
+
+  /**
+   * Applies a blocking, per-item action (ex: fetching the builds of a single job) to every item of
+   * a partition. In {@code virtual} execution mode the items are processed concurrently, with at
+   * most {@code partitionConcurrency} in flight against the partition at any time; otherwise they
+   * are processed sequentially on the calling thread. The action must be safe to run concurrently.
+   * No more items are started once the poll is past its deadline, or once one has run over the
+   * threshold.
+   */
+  protected <E> void forEachInPartition(
+      PollContext ctx, Collection<E> items, Consumer<? super E> action) {
+    if (getExecutionMode() != ExecutionMode.VIRTUAL || items.size() <= 1) {
+      for (E item : items) {
+        if (ctx.isPastDeadline()) {
+          return;
+        }
+        action.accept(item);
+      }
+      return;
+    }
+    handOff(() -> fanOutInPartition(ctx, items, action));
+  }
+
+  private <E> void fanOutInPartition(
+      PollContext ctx, Collection<E> items, Consumer<? super E> action) {
+    Semaphore permits =
+        partitionPermits.computeIfAbsent(
+            ctx.partitionName, it -> new Semaphore(Math.max(1, getPartitionConcurrency())));
+    ExecutorService executor = getPartitionExecutor(getPollConcurrency());
+    List<Future<?>> futures = new ArrayList<>(items.size());
+    AtomicBoolean aborted = new AtomicBoolean();
+    for (E item : items) {
+      // the permit is taken before submitting, so that no more than partitionConcurrency threads
+      // are started for the partition, even on the platform thread fallback
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(it -> it.cancel(true));
+        return;
+      }
+      if (aborted.get() || ctx.isPastDeadline()) {
+        permits.release();
+        break;
+      }
+      try {
+        futures.add(
+            executor.submit(
+                inLane(
+                    () -> {
+                      try {
+                        if (!ctx.isPastDeadline()) {
+                          ctx.runBound(() -> action.accept(item));
+                        }
+                      } catch (ItemUpperThresholdExceededException e) {
+                        aborted.set(true);
+                        throw e;
+                      } finally {
+                        permits.release();
+                      }
+                    })));
+      } catch (RuntimeException e) {
+        permits.release();
+        throw e;
+      }
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(it -> it.cancel(true));
+        return;
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof ItemUpperThresholdExceededException) {
+          futures.forEach(it -> it.cancel(true));
+          throw (RuntimeException) e.getCause();
+        }
+        log.error(
+            "Failed to poll {}:{}",
+            StructuredArguments.kv("monitor", getName()),
+            StructuredArguments.kv("partition", ctx.getPartitionKey()),
+            e.getCause());
+      }
+    }
+  }
+
+  private void awaitAll(List<Future<?>> futures, IntFunction<String> partition) {
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        futures.forEach(it -> it.cancel(true));
+        return;
+      } catch (ExecutionException e) {
+        log.error(
+            "Failed to poll {}:{}",
+            StructuredArguments.kv("monitor", getName()),
+            StructuredArguments.kv("partition", partition.apply(i)),
+            e.getCause());
+      }
+    }
+  }
+
+  private synchronized ExecutorService getPartitionExecutor(int concurrency) {
+    if (partitionExecutor == null && getExecutionMode() == ExecutionMode.VIRTUAL) {
+      partitionExecutor = newVirtualThreadExecutor();
+    }
+    if (partitionExecutor == null) {
+      AtomicInteger threadCount = new AtomicInteger();
+      ThreadPoolExecutor executor =
+          new ThreadPoolExecutor(
+              concurrency,
+              concurrency,
+              60,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              runnable -> {
+                Thread thread =
+                    new Thread(runnable, getName() + "-partition-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      executor.allowCoreThreadTimeOut(true);
+      partitionExecutor = executor;
+    }
+    return partitionExecutor;
+  }
+
   /**
    * Returns a delta of stored state versus newly polled data. A polling monitor must not perform
    * writes in this method.
@@ -125,26 +468,256 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
    */
   protected abstract void commitDelta(T delta, boolean sendEvents);
 
+  /**
+   * Generates the delta page by page, handing each page (of at most {@code pageSize} items) to
+   * {@code pages} as soon as it is built so it can be committed before the next one is generated.
+   * Monitors with potentially huge deltas should override this so that memory is bounded by the
+   * page size rather than the delta size. Generation must stop if {@code pages} throws, which it
+   * does as soon as the delta crosses the item threshold.
+   *
+   * <p>Pages already committed by then are kept, so monitors emitting more than one page should
+   * first report a cheap count of the delta with {@link DeltaItemCounter#expect(int)}: a delta
+   * known to be over the threshold before its first page is rejected whole.
+   *
+   * <p>By default the whole delta returned by {@link #generateDelta(PollContext)} is one page.
+   */
+  protected void streamDelta(PollContext ctx, int pageSize, Consumer<T> pages) {
+    pages.accept(generateDelta(ctx));
+  }
+
   public PollContext getPollContext(String partition) {
     return new PollContext(partition);
   }
 
+  /**
+   * Polls a partition. Partitions configured to be split into sub-partitions are polled one
+   * sub-partition at a time, each under its own lock.
+   */
   @Override
   public void pollSingle(PollContext ctx) {
-    if (lockService.isPresent()) {
-      // Lock duration of the full poll interval; if the work is completed ahead of that time, it'll
-      // be released.
+    if (!ctx.isSubPartitioned() && getSubPartitionCount(ctx.partitionName) > 1) {
+      expandSubPartitions(ctx).forEach(this::pollSingle);
+      return;
+    }
+
+    ctx.shadow = isShadowPoll(ctx);
+    try {
+      if (ctx.shadow) {
+        lockedPollSingle(ctx);
+      } else {
+        instrumentation.trackPartitionPollTime(
+            getName(), ctx.getPartitionKey(), () -> lockedPollSingle(ctx));
+      }
+    } finally {
+      getPartitionSchedule(ctx)
+          .polled(System.currentTimeMillis(), getSchedulingProperties().getJitter());
+    }
+  }
+
+  /** Spreads partitions that have never been polled evenly across their poll interval. */
+  private void staggerPartitions(List<PollContext> partitions, long now) {
+    for (int i = 0; i < partitions.size(); i++) {
+      PartitionSchedule schedule = getPartitionSchedule(partitions.get(i));
+      schedule.firstPollAt(now + schedule.getInterval() * 1000 * i / partitions.size());
+    }
+  }
+
+  /**
+   * Orders partitions by descending priority: the share of their recent polls that found new
+   * items, plus the number of poll intervals they are overdue by. When freshness is tracked, a
+   * partition is overdue from its last commit by any replica rather than from its local schedule.
+   */
+  private void prioritizePartitions(List<PollContext> partitions, long now) {
+    Map<String, Duration> lags =
+        freshnessService != null ? freshnessService.getLags(getName()) : Collections.emptyMap();
+    Map<String, Double> priorities = new HashMap<>();
+    for (PollContext ctx : partitions) {
+      PartitionSchedule schedule = getPartitionSchedule(ctx);
+      Duration lag = lags.get(ctx.getPartitionKey());
+      long intervalMillis = schedule.getInterval() * 1000;
+      double overdue =
+          lag != null && intervalMillis > 0
+              ? Math.max(0, (double) lag.toMillis() / intervalMillis - 1)
+              : schedule.getOverdueIntervals(now);
+      priorities.put(ctx.getPartitionKey(), schedule.getActivity() + overdue);
+    }
+    partitions.sort(
+        Comparator.comparingDouble((PollContext ctx) -> priorities.get(ctx.getPartitionKey()))
+            .reversed());
+  }
+
+  private List<PollContext> expandSubPartitions(PollContext ctx) {
+    int count = ctx.isSubPartitioned() ? 1 : getSubPartitionCount(ctx.partitionName);
+    return count > 1 ? ctx.subPartitions(count) : Collections.singletonList(ctx);
+  }
+
+  /** The number of sub-partitions a partition is split into. */
+  private int getSubPartitionCount(String partition) {
+    return Optional.ofNullable(getPartitionSubPartitionCount(partition)).orElse(1);
+  }
+
+  private boolean ownsPartition(PollContext ctx) {
+    return ctx.fastForward
+        || shardingService == null
+        || shardingService.owns(getName(), ctx.getPartitionKey());
+  }
+
+  /** Returns the schedule of a partition, creating it at the monitor's poll interval if needed. */
+  public PartitionSchedule getPartitionSchedule(String partition) {
+    return getPartitionSchedule(new PollContext(partition));
+  }
+
+  /** Shadow polls are scheduled on their own, so they don't move the partition's real schedule. */
+  private PartitionSchedule getPartitionSchedule(PollContext ctx) {
+    if (ctx.shadow) {
+      return shadowSchedules.computeIfAbsent(
+          ctx.getPartitionKey(),
+          key -> new PartitionSchedule(getInitialPollInterval(ctx.partitionName)));
+    }
+    return partitionSchedules.computeIfAbsent(
+        ctx.getPartitionKey(),
+        key -> {
+          PartitionSchedule schedule =
+              new PartitionSchedule(getInitialPollInterval(ctx.partitionName));
+          instrumentation.trackPollInterval(schedule.getIntervalRef(), getName(), key);
+          return schedule;
+        });
+  }
+
+  /**
+   * Whether partitions adapt their poll interval. A partition's schedule lives in the memory of the
+   * replicas polling it and only the replica winning its lock sees its change rate, so intervals
+   * are only adapted where a single replica polls each partition: without a lock (a single
+   * replica), or with partitions sharded across replicas. Otherwise replicas racing for the lock
+   * keep the configured interval, rather than polling on whatever interval they last adapted to.
+   */
+  private boolean isAdaptive() {
+    return getAdaptivePollingProperties().isEnabled()
+        && (!lockService.isPresent() || (shardingService != null && shardingService.isSharding()));
+  }
+
+  private long getInitialPollInterval(String partition) {
+    AdaptivePollingProperties adaptive = getAdaptivePollingProperties();
+    if (!isAdaptive()) {
+      return getPollInterval(partition);
+    }
+    return Math.max(
+        adaptive.getMinPollInterval(),
+        Math.min(adaptive.getMaxPollInterval(), getPollInterval(partition)));
+  }
+
+  private void updatePollInterval(PollContext ctx, int itemsCached) {
+    AdaptivePollingProperties adaptive = getAdaptivePollingProperties();
+    PartitionSchedule schedule = getPartitionSchedule(ctx);
+    schedule.recordActivity(itemsCached > 0);
+    if (isAdaptive()) {
+      schedule.adapt(
+          itemsCached > 0,
+          adaptive.getMinPollInterval(),
+          adaptive.getMaxPollInterval(),
+          adaptive.getMultiplier());
+    } else {
+      schedule.setInterval(getPollInterval(ctx.partitionName));
+    }
+  }
+
+  protected SchedulingProperties getSchedulingProperties() {
+    return igorProperties.getSpinnaker().getBuild().getScheduling();
+  }
+
+  protected AdaptivePollingProperties getAdaptivePollingProperties() {
+    return igorProperties.getSpinnaker().getBuild().getAdaptivePolling();
+  }
+
+  private void lockedPollSingle(PollContext ctx) {
+    if (ctx.shadow) {
+      // shadow polls commit nothing, so they take no lock and have no deadline
+      internalPollSingle(ctx);
+    } else if (lockService.isPresent()) {
+      // Lock duration of the full poll interval (unless configured otherwise); if the work is
+      // completed ahead of that time, it'll be released.
       // If anything, this will mean builds are polled more often, rather than less.
-      final String lockName = getLockName(getName(), ctx.partitionName);
+      final String lockName = getLockName(getName(), ctx.getPartitionKey());
+      Duration lockDuration =
+          lockService.get().getLockDuration(Duration.ofSeconds(getLockDuration(ctx.partitionName)));
+      long requestedAt = System.currentTimeMillis();
+      long lockRequestedAt = System.nanoTime();
+      AtomicBoolean acquired = new AtomicBoolean();
       lockService
           .get()
-          .acquire(lockName, Duration.ofSeconds(getPollInterval()), () -> internalPollSingle(ctx));
+          .acquire(
+              lockName,
+              lockDuration,
+              () -> {
+                acquired.set(true);
+                ctx.lockWaitNanos = System.nanoTime() - lockRequestedAt;
+                instrumentation.trackPhaseTime(
+                    getName(), ctx.getPartitionKey(), PollPhase.LOCK_WAIT, ctx.lockWaitNanos);
+                startDeadline(ctx, lockDuration);
+                internalPollSingle(ctx);
+              });
+      if (!acquired.get()) {
+        getPollHistory(ctx.getPartitionKey())
+            .record(
+                requestedAt,
+                LockOutcome.NOT_ACQUIRED,
+                System.nanoTime() - lockRequestedAt,
+                0,
+                0,
+                0,
+                0,
+                0,
+                false,
+                null);
+      }
     } else {
       log.warn("****LOCKING NOT ENABLED***, not recommended running on more than one node.");
       internalPollSingle(ctx);
     }
   }
 
+  /**
+   * The poll must be over before its lock expires, or the next owner may start polling too.
+   * Generation stops early enough for the partial delta to be committed under the lock.
+   */
+  private static void startDeadline(PollContext ctx, Duration lockDuration) {
+    ctx.setDeadline(
+        System.currentTimeMillis() + (long) (lockDuration.toMillis() * GENERATION_SHARE_OF_LOCK));
+  }
+
+  /**
+   * Publishes an event (ex: to Echo) for an item being committed. The time it takes is accounted
+   * for in the {@link PollPhase#EVENT_PUBLISH} phase of the poll rather than in its commit phase.
+   */
+  protected void publishEvent(Runnable publish) {
+    publishEvent(null, null, publish);
+  }
+
+  /**
+   * Publishes an event for an item of a partition that finished (ex: a build) at {@code
+   * finishedAt}, recording how long it took from the item finishing to its event being delivered.
+   * Events are often published from parallel streams, so the partition is passed in rather than
+   * taken from the current poll.
+   */
+  protected void publishEvent(
+      @Nullable String partition, @Nullable Instant finishedAt, Runnable publish) {
+    PollContext ctx = PollContext.current();
+    long start = System.nanoTime();
+    try {
+      publish.run();
+    } finally {
+      if (ctx != null) {
+        ctx.eventPublishNanos.add(System.nanoTime() - start);
+      }
+    }
+    if (partition != null && finishedAt != null) {
+      instrumentation.trackEventLatency(
+          getName(),
+          partition,
+          Math.max(0, System.currentTimeMillis() - finishedAt.toEpochMilli()));
+    }
+  }
+
   /**
    * Method to construct a lockName and sanitise it to remove special characters as per kork
    * validation
@@ -165,61 +738,266 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
   protected void internalPollSingle(PollContext ctx) {
     String monitorName =
         !StringUtils.isBlank(this.getName()) ? this.getName() : getClass().getSimpleName();
+    // sub-partitions of a partition are accounted for separately
+    String partition = ctx.getPartitionKey();
 
-    itemsCachedMap.putIfAbsent(ctx.partitionName, new AtomicInteger(0));
-    itemsOverThresholdMap.putIfAbsent(ctx.partitionName, new AtomicInteger(0));
-
-    instrumentation.trackItemsCached(
-        itemsCachedMap.get(ctx.partitionName), monitorName, ctx.partitionName);
+    // shadow polls only report to the poll history and the shadow metrics, leaving the partition's
+    // metrics to its real polls
+    boolean shadow = ctx.shadow;
+    AtomicInteger itemsCached =
+        shadow
+            ? new AtomicInteger(0)
+            : itemsCachedMap.computeIfAbsent(partition, it -> new AtomicInteger(0));
+    AtomicInteger itemsOverThreshold =
+        shadow
+            ? new AtomicInteger(0)
+            : itemsOverThresholdMap.computeIfAbsent(partition, it -> new AtomicInteger(0));
+    if (!shadow) {
+      instrumentation.trackItemsCached(itemsCached, monitorName, partition);
 
-    instrumentation.trackItemsOverThreshold(
-        itemsOverThresholdMap.get(ctx.partitionName), monitorName, ctx.partitionName);
+      instrumentation.trackItemsOverThreshold(itemsOverThreshold, monitorName, partition);
+    }
 
+    long startedAt = System.currentTimeMillis();
+    long allocatedAtStart = shadow ? allocatedBytes() : 0;
+    PollCycleEvent event = new PollCycleEvent();
+    String error = null;
     try {
-      T delta = generateDelta(ctx);
-
       int upperThreshold =
           Optional.ofNullable(getPartitionUpperThreshold(ctx.partitionName))
               .orElse(igorProperties.getSpinnaker().getPollingSafeguard().getItemUpperThreshold());
 
-      boolean sendEvents = !ctx.fastForward;
-      int deltaSize = delta.getItems().size();
-      if (deltaSize > upperThreshold) {
-        itemsOverThresholdMap.get(ctx.partitionName).set(deltaSize);
-        if (ctx.fastForward) {
-          log.warn(
-              "Fast forwarding items ({}) in {} {}",
-              itemsOverThresholdMap.get(ctx.partitionName).get(),
-              StructuredArguments.kv("monitor", monitorName),
-              StructuredArguments.kv("partition", ctx.partitionName));
-          sendEvents = false;
-        } else {
-          log.error(
-              "Number of items ({}) to cache exceeds upper threshold ({}) in {} {}",
-              itemsOverThresholdMap.get(ctx.partitionName).get(),
-              upperThreshold,
-              StructuredArguments.kv("monitor", monitorName),
-              StructuredArguments.kv("partition", ctx.partitionName));
-          return;
+      boolean sendEvents = !ctx.fastForward && isSendEventsEnabled();
+      AtomicInteger deltaSize = new AtomicInteger();
+      AtomicLong thresholdCheckNanos = new AtomicLong();
+      AtomicLong commitNanos = new AtomicLong();
+      event.begin();
+      String outcome = "failed";
+      long streamStart = System.nanoTime();
+      // monitors report items into the counter while generating, so that a delta bound to be
+      // rejected stops generating early; fast-forwards are never rejected
+      ctx.deltaItems.reset(ctx.fastForward ? Integer.MAX_VALUE : upperThreshold);
+      Consumer<T> commit =
+          page -> {
+            long commitStart = System.nanoTime();
+            try {
+              commitDelta(page, sendEvents);
+            } finally {
+              commitNanos.addAndGet(System.nanoTime() - commitStart);
+            }
+          };
+      try {
+        // pages are committed as they arrive, so that at most a page of the delta is held at once.
+        // A delta running over the threshold is aborted as soon as it crosses it; one known to be
+        // over it before its first page (see DeltaItemCounter#expect) commits nothing.
+        // Fast-forwards are never aborted.
+        ctx.runBound(
+            () ->
+                streamDelta(
+                    ctx,
+                    getDeltaPageSize(),
+                    page -> {
+                      long checkStart = System.nanoTime();
+                      int size = deltaSize.get() + page.getItems().size();
+                      boolean overThreshold = size > upperThreshold && !ctx.fastForward;
+                      thresholdCheckNanos.addAndGet(System.nanoTime() - checkStart);
+                      if (overThreshold) {
+                        throw new ItemUpperThresholdExceededException(size);
+                      }
+                      deltaSize.set(size);
+                      if (!shadow) {
+                        commit.accept(page);
+                      }
+                    }));
+        outcome = ctx.isStoppedAtDeadline() ? "deadlineExceeded" : "completed";
+      } catch (ItemUpperThresholdExceededException e) {
+        outcome = "overThreshold";
+        itemsOverThreshold.set(e.getItems());
+        log.error(
+            "Number of items ({}) to cache exceeds upper threshold ({}) in {} {}",
+            e.getItems(),
+            upperThreshold,
+            StructuredArguments.kv("monitor", monitorName),
+            StructuredArguments.kv("partition", partition));
+        return;
+      } finally {
+        trackPhases(
+            monitorName,
+            ctx,
+            event,
+            System.nanoTime() - streamStart,
+            thresholdCheckNanos.get(),
+            commitNanos.get());
+        if (!shadow) {
+          instrumentation.trackItems(
+              monitorName, partition, ctx.deltaItems.getExamined(), deltaSize.get());
+        }
+        event.end();
+        event.itemsExamined = ctx.deltaItems.getExamined();
+        event.itemsEmitted = deltaSize.get();
+        if (event.shouldCommit()) {
+          event.monitor = monitorName;
+          event.partition = partition;
+          event.outcome = outcome;
+          event.commit();
         }
-      } else {
-        itemsOverThresholdMap.get(ctx.partitionName).set(0);
       }
 
-      sendEvents = sendEvents && isSendEventsEnabled();
+      if (deltaSize.get() > upperThreshold) {
+        itemsOverThreshold.set(deltaSize.get());
+        log.warn(
+            "Fast forwarding items ({}) in {} {}",
+            deltaSize.get(),
+            StructuredArguments.kv("monitor", monitorName),
+            StructuredArguments.kv("partition", partition));
+      } else {
+        itemsOverThreshold.set(0);
+      }
 
-      commitDelta(delta, sendEvents);
-      itemsCachedMap.get(ctx.partitionName).set(deltaSize);
+      itemsCached.set(deltaSize.get());
+      if (ctx.isStoppedAtDeadline()) {
+        // what was generated before the deadline is committed; the rest is left to the next poll,
+        // so the partition isn't counted as fresh
+        instrumentation.trackDeadlineExceeded(monitorName, partition, deltaSize.get());
+        log.warn(
+            "Poll reached its deadline, committed the first {} items in {} {}",
+            deltaSize.get(),
+            StructuredArguments.kv("monitor", monitorName),
+            StructuredArguments.kv("partition", partition));
+      }
+      if (!shadow) {
+        updatePollInterval(ctx, deltaSize.get());
+        if (freshnessService != null && !ctx.isStoppedAtDeadline()) {
+          freshnessService.committed(getName(), partition);
+        }
+      }
     } catch (Exception e) {
       log.error(
           "Failed to update monitor items for {}:{}",
           StructuredArguments.kv("monitor", monitorName),
-          StructuredArguments.kv("partition", ctx.partitionName),
+          StructuredArguments.kv("partition", partition),
           e);
-      instrumentation.trackPollCycleFailed(monitorName, ctx.partitionName);
-      itemsCachedMap.get(ctx.partitionName).set(0);
-      itemsOverThresholdMap.get(ctx.partitionName).set(0);
+      if (!shadow) {
+        instrumentation.trackPollCycleFailed(monitorName, partition);
+      }
+      itemsCached.set(0);
+      itemsOverThreshold.set(0);
+      error = e.getClass().getName();
+    } finally {
+      long allocated = shadow ? Math.max(0, allocatedBytes() - allocatedAtStart) : 0;
+      if (shadow) {
+        instrumentation.trackShadowAllocation(monitorName, partition, allocated);
+      }
+      getPollHistory(partition)
+          .record(
+              startedAt,
+              lockService.isPresent() && !shadow ? LockOutcome.ACQUIRED : LockOutcome.DISABLED,
+              ctx.lockWaitNanos,
+              event.generateTime,
+              event.thresholdCheckTime,
+              event.commitTime,
+              event.eventPublishTime,
+              event.itemsEmitted,
+              itemsOverThreshold.get() > 0,
+              error,
+              shadow,
+              allocated);
+    }
+  }
+
+  /**
+   * Switches shadow polling on or off, for a single partition or for the whole monitor. Shadow
+   * polls generate their delta against the real CI servers and caches, recording its size, timings
+   * and allocations in the poll history, but write nothing: no cache writes, no events, no
+   * partition lock, no production metrics and no change to the partition's schedule, so the cost of
+   * a new partition or of more concurrency can be measured on a canary without it affecting the
+   * other replicas. Shadow partitions are polled whether this replica owns them or not, except that
+   * a partition it is the sharded owner of is polled for real, as no other replica polls it.
+   *
+   * @param partition the partition name, or null for the whole monitor
+   */
+  public void setShadow(@Nullable String partition, boolean enabled) {
+    if (partition == null) {
+      shadow = enabled;
+      if (!enabled) {
+        shadowPartitions.clear();
+      }
+    } else if (enabled) {
+      shadowPartitions.add(partition);
+    } else {
+      shadowPartitions.remove(partition);
+    }
+  }
+
+  /** Whether the whole monitor is shadow polling. */
+  public boolean isShadow() {
+    return shadow;
+  }
+
+  /** Whether a partition is shadow polled. */
+  public boolean isShadow(String partition) {
+    return shadow || shadowPartitions.contains(partition);
+  }
+
+  /** Whether a poll of a partition is a shadow one, see {@link #setShadow}. */
+  private boolean isShadowPoll(PollContext ctx) {
+    return isShadow(ctx.partitionName)
+        && !(shardingService != null
+            && shardingService.isSharding()
+            && shardingService.owns(getName(), ctx.getPartitionKey()));
+  }
+
+  /** The partitions shadow polled on their own. */
+  public Set<String> getShadowPartitions() {
+    return Collections.unmodifiableSet(shadowPartitions);
+  }
+
+  private static long allocatedBytes() {
+    java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    return threads instanceof com.sun.management.ThreadMXBean
+        ? ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes()
+        : 0;
+  }
+
+  /** Returns the history of the most recent polls of a partition (or sub-partition). */
+  public PollHistory getPollHistory(String partition) {
+    return pollHistories.computeIfAbsent(
+        partition,
+        it -> new PollHistory(igorProperties.getSpinnaker().getBuild().getPollHistorySize()));
+  }
+
+  /** Returns the poll histories of all the partitions polled so far, keyed by partition. */
+  public Map<String, PollHistory> getPollHistories() {
+    return Collections.unmodifiableMap(pollHistories);
+  }
+
+  /**
+   * Splits the time spent streaming a delta into its phases. Pages are generated and committed in
+   * turns, so whatever was not spent committing or checking pages was spent generating them.
+   */
+  private void trackPhases(
+      String monitorName,
+      PollContext ctx,
+      PollCycleEvent event,
+      long streamNanos,
+      long thresholdNanos,
+      long commitNanos) {
+    String partition = ctx.getPartitionKey();
+    long publishNanos = ctx.eventPublishNanos.sumThenReset();
+    event.lockWaitTime = ctx.lockWaitNanos;
+    event.generateTime = Math.max(0, streamNanos - commitNanos - thresholdNanos);
+    event.thresholdCheckTime = thresholdNanos;
+    event.commitTime = Math.max(0, commitNanos - publishNanos);
+    event.eventPublishTime = publishNanos;
+    if (ctx.shadow) {
+      return;
     }
+    instrumentation.trackPhaseTime(monitorName, partition, PollPhase.GENERATE, event.generateTime);
+    instrumentation.trackPhaseTime(
+        monitorName, partition, PollPhase.THRESHOLD_CHECK, event.thresholdCheckTime);
+    instrumentation.trackPhaseTime(monitorName, partition, PollPhase.COMMIT, event.commitTime);
+    instrumentation.trackPhaseTime(
+        monitorName, partition, PollPhase.EVENT_PUBLISH, event.eventPublishTime);
   }
 
   @Override
@@ -234,7 +1012,97 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
 
   @Override
   public int getPollInterval() {
-    return igorProperties.getSpinnaker().getBuild().getPollInterval();
+    return Optional.ofNullable(getMonitorPollInterval())
+        .or(
+            () ->
+                Optional.ofNullable(getMonitorPollingProperties())
+                    .map(MonitorPollingProperties::getPollInterval))
+        .orElse(igorProperties.getSpinnaker().getBuild().getPollInterval());
+  }
+
+  /** Returns the configured poll interval (in seconds) of a partition. */
+  public int getPollInterval(String partition) {
+    return Optional.ofNullable(getPartitionPollInterval(partition))
+        .or(() -> getPartitionPollingProperties(partition).map(it -> it.getPollInterval()))
+        .orElseGet(this::getPollInterval);
+  }
+
+  /**
+   * Returns the longest (in seconds) a partition may go between polls: its poll interval, or the
+   * longest interval it may back off to when polling is adaptive.
+   */
+  public int getMaxPollInterval(String partition) {
+    AdaptivePollingProperties adaptive = getAdaptivePollingProperties();
+    return isAdaptive()
+        ? Math.max(adaptive.getMaxPollInterval(), getPollInterval(partition))
+        : getPollInterval(partition);
+  }
+
+  /** Returns how long (in seconds) a partition stays locked while being polled. */
+  public int getLockDuration(String partition) {
+    return Optional.ofNullable(getPartitionLockDuration(partition))
+        .or(() -> getPartitionPollingProperties(partition).map(it -> it.getLockDuration()))
+        .or(() -> Optional.ofNullable(getMonitorLockDuration()))
+        .or(
+            () ->
+                Optional.ofNullable(getMonitorPollingProperties())
+                    .map(MonitorPollingProperties::getLockDuration))
+        .orElseGet(() -> getPollInterval(partition));
+  }
+
+  private @Nullable MonitorPollingProperties getMonitorPollingProperties() {
+    return igorProperties.getSpinnaker().getBuild().getMonitors().get(getName());
+  }
+
+  private Optional<PartitionPollingProperties> getPartitionPollingProperties(String partition) {
+    return Optional.ofNullable(getMonitorPollingProperties())
+        .map(it -> it.getPartitions().get(partition));
+  }
+
+  /**
+   * Returns a virtual-thread-per-task executor, or an unbounded platform thread pool when the
+   * runtime does not support virtual threads (Java 17).
+   */
+  private ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      log.warn(
+          "Virtual threads are not supported by this runtime, falling back to platform threads for"
+              + " {}",
+          StructuredArguments.kv("monitor", getName()));
+      return Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, getName() + "-partition");
+            thread.setDaemon(true);
+            return thread;
+          });
+    }
+  }
+
+  protected ExecutionMode getExecutionMode() {
+    return igorProperties.getSpinnaker().getBuild().getExecutionMode();
+  }
+
+  /** The maximum number of concurrent downstream calls against a single partition. */
+  protected int getPartitionConcurrency() {
+    return igorProperties.getSpinnaker().getBuild().getPartitionConcurrency();
+  }
+
+  /**
+   * The maximum number of partitions this monitor will poll concurrently. It doesn't apply in
+   * {@code virtual} execution mode, where every partition is polled on a thread of its own.
+   */
+  protected int getPollConcurrency() {
+    return Optional.ofNullable(getMonitorPollingProperties())
+        .map(MonitorPollingProperties::getPollConcurrency)
+        .orElse(igorProperties.getSpinnaker().getBuild().getPollConcurrency());
+  }
+
+  /** Whether this monitor's poll cycles run on a scheduler of their own. */
+  protected boolean isIsolateMonitors() {
+    return igorProperties.getSpinnaker().getBuild().isIsolateMonitors();
   }
 
   @Override
@@ -251,7 +1119,46 @@ public abstract class CommonPollingMonitor<I extends DeltaItem, T extends Pollin
     return dynamicConfigService.getConfig(Boolean.class, "spinnaker.build.sendEventsEnabled", true);
   }
 
+  protected int getDeltaPageSize() {
+    return igorProperties.getSpinnaker().getBuild().getDeltaPageSize();
+  }
+
   protected @Nullable Integer getPartitionUpperThreshold(String partition) {
     return null;
   }
+
+  /**
+   * Returns the number of sub-partitions a partition is split into, so that a single huge partition
+   * can be polled in parallel across replicas. Monitors returning more than one must only generate
+   * deltas for the items {@link PollContext#includes(String) included} in the polled context.
+   */
+  protected @Nullable Integer getPartitionSubPartitionCount(String partition) {
+    return null;
+  }
+
+  /** Returns the poll interval of a partition as configured on its host, account or search. */
+  protected @Nullable Integer getPartitionPollInterval(String partition) {
+    return null;
+  }
+
+  /** Returns the lock duration of a partition as configured on its host, account or search. */
+  protected @Nullable Integer getPartitionLockDuration(String partition) {
+    return null;
+  }
+
+  /**
+   * Returns the poll interval of every partition as configured by the monitor's integration (ex:
+   * {@code docker-registry.pollInterval}). Per-partition settings take precedence over it.
+   */
+  protected @Nullable Integer getMonitorPollInterval() {
+    return null;
+  }
+
+  /**
+   * Returns the lock duration of every partition as configured by the monitor's integration.
+   * Per-partition settings take precedence over it.
+   */
+  protected @Nullable Integer getMonitorLockDuration() {
+    return null;
+  }
 }
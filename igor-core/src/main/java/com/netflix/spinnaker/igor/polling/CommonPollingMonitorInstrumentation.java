@@ -19,8 +19,14 @@ package com.netflix.spinnaker.igor.polling;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.histogram.PercentileDistributionSummary;
+import com.netflix.spectator.api.histogram.PercentileTimer;
 import com.netflix.spectator.api.patterns.PolledMeter;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.ToDoubleFunction;
 
 public class CommonPollingMonitorInstrumentation {
 
@@ -29,6 +35,19 @@ public class CommonPollingMonitorInstrumentation {
   private final Id itemsOverThresholdId;
   private final Id pollCycleFailedId;
   private final Id pollCycleTimingId;
+  private final Id partitionPollTimingId;
+  private final Id pollIntervalId;
+  private final Id ownedPartitionsId;
+  private final Id ownershipSkewId;
+  private final Id deadlineExceededId;
+  private final Id partialProgressId;
+  private final Id phaseTimingId;
+  private final Id itemsExaminedId;
+  private final Id itemsEmittedId;
+  private final Id eventLatencyId;
+  private final Id laneActiveThreadsId;
+  private final Id laneQueueDepthId;
+  private final Id shadowAllocatedBytesId;
 
   public CommonPollingMonitorInstrumentation(Registry registry) {
     this.registry = registry;
@@ -36,6 +55,19 @@ public class CommonPollingMonitorInstrumentation {
     itemsOverThresholdId = registry.createId("pollingMonitor.itemsOverThreshold");
     pollCycleFailedId = registry.createId("pollingMonitor.failed");
     pollCycleTimingId = registry.createId("pollingMonitor.pollTiming");
+    partitionPollTimingId = registry.createId("pollingMonitor.partitionPollTiming");
+    pollIntervalId = registry.createId("pollingMonitor.pollInterval");
+    ownedPartitionsId = registry.createId("pollingMonitor.sharding.ownedPartitions");
+    ownershipSkewId = registry.createId("pollingMonitor.sharding.ownershipSkew");
+    deadlineExceededId = registry.createId("pollingMonitor.deadlineExceeded");
+    partialProgressId = registry.createId("pollingMonitor.partialProgress");
+    phaseTimingId = registry.createId("pollingMonitor.phaseTiming");
+    itemsExaminedId = registry.createId("pollingMonitor.itemsExamined");
+    itemsEmittedId = registry.createId("pollingMonitor.itemsEmitted");
+    eventLatencyId = registry.createId("pollingMonitor.eventLatency");
+    laneActiveThreadsId = registry.createId("pollingMonitor.lane.activeThreads");
+    laneQueueDepthId = registry.createId("pollingMonitor.lane.queueDepth");
+    shadowAllocatedBytesId = registry.createId("pollingMonitor.shadow.allocatedBytes");
   }
 
   public void trackItemsCached(AtomicInteger numberOfItems, String monitor, String partition) {
@@ -71,16 +103,115 @@ public class CommonPollingMonitorInstrumentation {
     }
   }
 
+  public void trackPollInterval(AtomicLong intervalSeconds, String monitor, String partition) {
+    Gauge gauge =
+        (Gauge) registry.get(pollIntervalId.withTags("monitor", monitor, "partition", partition));
+    if (gauge == null) {
+      PolledMeter.using(registry)
+          .withId(pollIntervalId.withTags("monitor", monitor, "partition", partition))
+          .monitorValue(intervalSeconds);
+    }
+  }
+
+  /**
+   * Tracks how many partitions this node owns and how far that is from its fair share (1.0 means
+   * partitions are evenly spread across replicas).
+   */
+  public void trackPartitionOwnership(
+      AtomicInteger owned, AtomicInteger total, IntSupplier members, String monitor) {
+    PolledMeter.using(registry)
+        .withId(ownedPartitionsId.withTag("monitor", monitor))
+        .monitorValue(owned);
+    PolledMeter.using(registry)
+        .withId(ownershipSkewId.withTag("monitor", monitor))
+        .monitorValue(
+            owned,
+            it ->
+                total.get() == 0 || members.getAsInt() == 0
+                    ? 0
+                    : it.get() * members.getAsInt() / (double) total.get());
+  }
+
+  /**
+   * Tracks the execution lane of a monitor: the threads busy polling for it and the partitions or
+   * items waiting for one. {@code source} is only weakly referenced.
+   */
+  public <T> void trackLane(
+      String monitor,
+      T source,
+      ToDoubleFunction<T> activeThreads,
+      ToDoubleFunction<T> queueDepth) {
+    PolledMeter.using(registry)
+        .withId(laneActiveThreadsId.withTag("monitor", monitor))
+        .monitorValue(source, activeThreads);
+    PolledMeter.using(registry)
+        .withId(laneQueueDepthId.withTag("monitor", monitor))
+        .monitorValue(source, queueDepth);
+  }
+
   public void trackPollCycleTime(String monitor, Runnable lambda) {
     registry.timer(pollCycleTimingId.withTags("monitor", monitor)).record(lambda);
   }
 
+  public void trackPartitionPollTime(String monitor, String partition, Runnable lambda) {
+    registry
+        .timer(partitionPollTimingId.withTags("monitor", monitor, "partition", partition))
+        .record(lambda);
+  }
+
   public void trackPollCycleFailed(String monitor, String partition) {
     registry
         .counter(getPollCycleFailedId().withTags("monitor", monitor, "partition", partition))
         .increment();
   }
 
+  /** Records the time a phase of a partition's poll took, as a percentile timer. */
+  public void trackPhaseTime(String monitor, String partition, PollPhase phase, long nanos) {
+    PercentileTimer.get(
+            registry,
+            phaseTimingId.withTags(
+                "monitor", monitor, "partition", partition, "phase", phase.getTag()))
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Counts the items a poll examined and, of these, the ones it emitted into its delta. */
+  public void trackItems(String monitor, String partition, int examined, int emitted) {
+    registry
+        .counter(itemsExaminedId.withTags("monitor", monitor, "partition", partition))
+        .increment(examined);
+    registry
+        .counter(itemsEmittedId.withTags("monitor", monitor, "partition", partition))
+        .increment(emitted);
+  }
+
+  /**
+   * Records how long (in milliseconds) it took from an item (ex: a build) finishing upstream to its
+   * event being delivered.
+   */
+  public void trackEventLatency(String monitor, String partition, long millis) {
+    PercentileDistributionSummary.get(
+            registry, eventLatencyId.withTags("monitor", monitor, "partition", partition))
+        .record(millis);
+  }
+
+  /** Records the bytes allocated by the polling thread during a shadow poll of a partition. */
+  public void trackShadowAllocation(String monitor, String partition, long bytes) {
+    PercentileDistributionSummary.get(
+            registry, shadowAllocatedBytesId.withTags("monitor", monitor, "partition", partition))
+        .record(bytes);
+  }
+
+  /** Counts a poll stopped at its deadline, recording how many items it got through. */
+  public void trackDeadlineExceeded(String monitor, String partition, int itemsProcessed) {
+    registry
+        .counter(deadlineExceededId.withTags("monitor", monitor, "partition", partition))
+        .increment();
+    registry
+        .distributionSummary(
+            partialProgressId.withTags("monitor", monitor, "partition", partition))
+        .record(itemsProcessed);
+  }
+
   public Id getItemsCachedId() {
     return itemsCachedId;
   }
@@ -96,4 +227,56 @@ public class CommonPollingMonitorInstrumentation {
   public Id getPollCycleTimingId() {
     return pollCycleTimingId;
   }
+
+  public Id getPartitionPollTimingId() {
+    return partitionPollTimingId;
+  }
+
+  public Id getPollIntervalId() {
+    return pollIntervalId;
+  }
+
+  public Id getOwnedPartitionsId() {
+    return ownedPartitionsId;
+  }
+
+  public Id getOwnershipSkewId() {
+    return ownershipSkewId;
+  }
+
+  public Id getPhaseTimingId() {
+    return phaseTimingId;
+  }
+
+  public Id getItemsExaminedId() {
+    return itemsExaminedId;
+  }
+
+  public Id getItemsEmittedId() {
+    return itemsEmittedId;
+  }
+
+  public Id getEventLatencyId() {
+    return eventLatencyId;
+  }
+
+  public Id getShadowAllocatedBytesId() {
+    return shadowAllocatedBytesId;
+  }
+
+  public Id getLaneActiveThreadsId() {
+    return laneActiveThreadsId;
+  }
+
+  public Id getLaneQueueDepthId() {
+    return laneQueueDepthId;
+  }
+
+  public Id getDeadlineExceededId() {
+    return deadlineExceededId;
+  }
+
+  public Id getPartialProgressId() {
+    return partialProgressId;
+  }
 }
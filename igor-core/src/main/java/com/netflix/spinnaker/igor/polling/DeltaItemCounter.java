@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the items a monitor adds to a delta while generating it, so that generation can stop (and
+ * spare the remaining downstream calls) as soon as the delta is bound to be rejected by the item
+ * upper threshold. Monitors also report the items they examined, whether they made it into the
+ * delta or not.
+ */
+public class DeltaItemCounter {
+  private final AtomicInteger items = new AtomicInteger();
+  private final AtomicInteger examined = new AtomicInteger();
+  private volatile int limit = Integer.MAX_VALUE;
+
+  /**
+   * Records items added to the delta.
+   *
+   * @throws ItemUpperThresholdExceededException if the delta is now over the limit
+   */
+  public void record(int count) {
+    int total = items.addAndGet(count);
+    if (total > limit) {
+      throw new ItemUpperThresholdExceededException(total);
+    }
+  }
+
+  /**
+   * Checks a count of the items the delta is about to hold, before any of them is committed.
+   * Streaming monitors call this ahead of their first page, so that a delta bound to be rejected
+   * commits nothing rather than the pages emitted before it crossed the limit.
+   *
+   * @throws ItemUpperThresholdExceededException if that many items are over the limit
+   */
+  public void expect(int count) {
+    if (count > limit) {
+      throw new ItemUpperThresholdExceededException(count);
+    }
+  }
+
+  public int getItems() {
+    return items.get();
+  }
+
+  /** Records items (ex: jobs or builds) examined while generating the delta. */
+  public void examined(int count) {
+    examined.addAndGet(count);
+  }
+
+  public int getExamined() {
+    return examined.get();
+  }
+
+  /** Starts counting a new delta that may hold at most {@code limit} items. */
+  void reset(int limit) {
+    this.items.set(0);
+    this.examined.set(0);
+    this.limit = limit;
+  }
+}
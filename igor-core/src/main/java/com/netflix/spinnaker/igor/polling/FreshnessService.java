@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks how fresh the cached state of each polled partition is. Whichever replica polls a
+ * partition records the time of its last successful commit in Redis, and every replica reads these
+ * back periodically, so the {@code pollingMonitor.freshnessLag} gauges (in seconds) agree across
+ * replicas regardless of which one polled. Once a monitor has reported the partitions it currently
+ * polls, the commits of any other (ex: no longer configured) partition are pruned on refresh, and
+ * partitions never committed lag from when they were first seen.
+ */
+public class FreshnessService {
+  private static final Logger log = LoggerFactory.getLogger(FreshnessService.class);
+  private static final String ID = "pollers:lastCommit";
+
+  private final RedisClientDelegate redisClientDelegate;
+  private final IgorConfigurationProperties igorProperties;
+  private final Registry registry;
+  private final Id freshnessLagId;
+  private final Duration refreshRate;
+  private final Set<String> monitors = ConcurrentHashMap.newKeySet();
+  private final Map<String, Map<String, AtomicLong>> lastCommits = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> currentPartitions = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService refreshExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "polling-freshness-refresh");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public FreshnessService(
+      RedisClientDelegate redisClientDelegate,
+      IgorConfigurationProperties igorProperties,
+      Registry registry,
+      Duration refreshRate) {
+    this.redisClientDelegate = redisClientDelegate;
+    this.igorProperties = igorProperties;
+    this.registry = registry;
+    this.freshnessLagId = registry.createId("pollingMonitor.freshnessLag");
+    this.refreshRate = refreshRate;
+  }
+
+  @PostConstruct
+  public void start() {
+    refreshExecutor.scheduleWithFixedDelay(
+        this::refresh, 0, refreshRate.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    refreshExecutor.shutdownNow();
+  }
+
+  /** Starts tracking the partitions of a monitor. */
+  public void register(String monitor) {
+    monitors.add(monitor);
+  }
+
+  /**
+   * Records the keys of every partition a monitor currently polls, whether or not this replica owns
+   * them. Commits of any other partition are ignored from now on and pruned on the next refresh.
+   * Partitions seen for the first time are {@link #seed seeded}.
+   */
+  public void retain(String monitor, Collection<String> partitions) {
+    Set<String> current = new HashSet<>(partitions);
+    Set<String> previous = currentPartitions.put(monitor, current);
+    Set<String> added = new HashSet<>(current);
+    if (previous != null) {
+      added.removeAll(previous);
+    }
+    if (!added.isEmpty()) {
+      seed(monitor, added);
+    }
+  }
+
+  /**
+   * Starts the lag of partitions from when they were first seen, unless they were already seen or
+   * committed, so that a partition that never commits (ex: always failing, or always over the item
+   * threshold) lags, rather than having no lag at all. The first replica to see a partition records
+   * it in Redis, where it survives restarts, and every replica reads it back on refresh.
+   */
+  private void seed(String monitor, Set<String> partitions) {
+    long now = System.currentTimeMillis();
+    try {
+      redisClientDelegate.withCommandsClient(
+          c -> {
+            partitions.forEach(partition -> c.hsetnx(key(monitor), partition, Long.toString(now)));
+          });
+    } catch (Exception e) {
+      log.warn("Failed to record the partitions of {}", monitor, e);
+    }
+  }
+
+  /** Records that a partition's delta was just committed in full. */
+  public void committed(String monitor, String partition) {
+    long now = System.currentTimeMillis();
+    lastCommit(monitor, partition).accumulateAndGet(now, Math::max);
+    try {
+      redisClientDelegate.withCommandsClient(
+          c -> {
+            c.hset(key(monitor), partition, Long.toString(now));
+          });
+    } catch (Exception e) {
+      log.warn("Failed to record the last commit of {}:{}", monitor, partition, e);
+    }
+  }
+
+  /** Reads back the last commit times recorded by every replica. */
+  public void refresh() {
+    for (String monitor : monitors) {
+      try {
+        Map<String, String> commits =
+            redisClientDelegate.withCommandsClient(c -> c.hgetAll(key(monitor)));
+        Set<String> current = currentPartitions.get(monitor);
+        if (current != null) {
+          prune(monitor, commits, current);
+        }
+        commits.forEach(
+            (partition, at) ->
+                lastCommit(monitor, partition).accumulateAndGet(Long.parseLong(at), Math::max));
+      } catch (Exception e) {
+        log.warn("Failed to read the last commits of {}", monitor, e);
+      }
+    }
+  }
+
+  /** Returns how long ago each known partition of a monitor was last committed. */
+  public Map<String, Duration> getLags(String monitor) {
+    long now = System.currentTimeMillis();
+    Map<String, Duration> lags = new HashMap<>();
+    lastCommits
+        .getOrDefault(monitor, Collections.emptyMap())
+        .forEach((partition, at) -> lags.put(partition, Duration.ofMillis(now - at.get())));
+    Set<String> current = currentPartitions.get(monitor);
+    if (current != null) {
+      lags.keySet().retainAll(current);
+    }
+    return lags;
+  }
+
+  private void prune(String monitor, Map<String, String> commits, Set<String> current) {
+    String[] stale =
+        commits.keySet().stream().filter(it -> !current.contains(it)).toArray(String[]::new);
+    if (stale.length > 0) {
+      redisClientDelegate.withCommandsClient(
+          c -> {
+            c.hdel(key(monitor), stale);
+          });
+      commits.keySet().removeAll(Set.of(stale));
+    }
+
+    Map<String, AtomicLong> known = lastCommits.getOrDefault(monitor, Collections.emptyMap());
+    for (String partition : new HashSet<>(known.keySet())) {
+      if (!current.contains(partition)) {
+        known.remove(partition);
+        PolledMeter.remove(
+            registry, freshnessLagId.withTags("monitor", monitor, "partition", partition));
+      }
+    }
+  }
+
+  private AtomicLong lastCommit(String monitor, String partition) {
+    return lastCommits
+        .computeIfAbsent(monitor, it -> new ConcurrentHashMap<>())
+        .computeIfAbsent(
+            partition,
+            it -> {
+              AtomicLong at = new AtomicLong();
+              PolledMeter.using(registry)
+                  .withId(freshnessLagId.withTags("monitor", monitor, "partition", partition))
+                  .monitorValue(at, value -> (System.currentTimeMillis() - value.get()) / 1000.0);
+              return at;
+            });
+  }
+
+  private String key(String monitor) {
+    return igorProperties.getSpinnaker().getJedis().getPrefix() + ":" + ID + ":" + monitor;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+/**
+ * Thrown to abort a poll as soon as its delta grows past the partition's item upper threshold.
+ * Monitors catching exceptions while generating a delta must let this one through.
+ */
+public class ItemUpperThresholdExceededException extends RuntimeException {
+  private final int items;
+
+  public ItemUpperThresholdExceededException(int items) {
+    super(null, null, false, false);
+    this.items = items;
+  }
+
+  /** The number of items the delta had when the threshold was crossed. */
+  public int getItems() {
+    return items;
+  }
+}
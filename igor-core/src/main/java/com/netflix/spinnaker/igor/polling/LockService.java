@@ -37,13 +37,17 @@ public class LockService {
     }
   }
 
+  /** Returns how long a lock requested for {@code maximumLockDuration} is actually held for. */
+  public Duration getLockDuration(Duration maximumLockDuration) {
+    return Optional.ofNullable(configuredMaxLockDuration).orElse(maximumLockDuration);
+  }
+
   public void acquire(
       final String lockName, final Duration maximumLockDuration, final Runnable runnable) {
     LockManager.LockOptions lockOptions =
         new LockManager.LockOptions()
             .withLockName(lockName)
-            .withMaximumLockDuration(
-                Optional.ofNullable(configuredMaxLockDuration).orElse(maximumLockDuration));
+            .withMaximumLockDuration(getLockDuration(maximumLockDuration));
 
     delegate.acquireLock(lockOptions, runnable);
   }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks when a single partition of a polling monitor is next due to be polled, and the effective
+ * poll interval it is currently polled at.
+ */
+public class PartitionSchedule {
+
+  /** Partitions due within this window of a scheduled run are polled in that run. */
+  static final long DUE_TOLERANCE_MS = 1000;
+
+  /** The weight of the latest poll in a partition's activity. */
+  static final double ACTIVITY_WEIGHT = 0.3;
+
+  private final AtomicLong interval;
+  private volatile long nextPollAt;
+  private volatile double activity;
+
+  public PartitionSchedule(long intervalSeconds) {
+    this.interval = new AtomicLong(intervalSeconds);
+  }
+
+  public boolean isDue(long now) {
+    return nextPollAt <= now + DUE_TOLERANCE_MS;
+  }
+
+  /** Epoch millis at which this partition is next due; 0 if it has never been polled. */
+  public long getNextPollAt() {
+    return nextPollAt;
+  }
+
+  /** The effective poll interval, in seconds. */
+  public long getInterval() {
+    return interval.get();
+  }
+
+  AtomicLong getIntervalRef() {
+    return interval;
+  }
+
+  void setInterval(long intervalSeconds) {
+    interval.set(intervalSeconds);
+  }
+
+  /**
+   * Adapts the poll interval to the partition's change rate: backs off towards {@code max} while
+   * a partition yields no new items and tightens towards {@code min} once it does.
+   */
+  void adapt(boolean changed, long min, long max, double multiplier) {
+    interval.updateAndGet(
+        current -> {
+          long next =
+              changed
+                  ? (long) Math.floor(current / multiplier)
+                  : (long) Math.ceil(current * multiplier);
+          return Math.max(min, Math.min(max, next));
+        });
+  }
+
+  /**
+   * Schedules the next poll one interval after {@code completedAt}, randomly shifted by up to
+   * {@code jitter} times the interval either way.
+   */
+  void polled(long completedAt, double jitter) {
+    long intervalMillis = interval.get() * 1000;
+    long shift =
+        jitter > 0
+            ? (long) (intervalMillis * jitter * ThreadLocalRandom.current().nextDouble(-1, 1))
+            : 0;
+    nextPollAt = completedAt + intervalMillis + shift;
+  }
+
+  /**
+   * How often the recent polls of this partition found new items, from 0 (none did) to 1 (all
+   * did), the latest polls weighing the most.
+   */
+  public double getActivity() {
+    return activity;
+  }
+
+  void recordActivity(boolean changed) {
+    activity = activity * (1 - ACTIVITY_WEIGHT) + (changed ? ACTIVITY_WEIGHT : 0);
+  }
+
+  /**
+   * How many poll intervals this partition is overdue by at {@code now}, one if it has never been
+   * polled.
+   */
+  double getOverdueIntervals(long now) {
+    long intervalMillis = interval.get() * 1000;
+    if (nextPollAt == 0) {
+      return 1;
+    }
+    return intervalMillis > 0 ? Math.max(0, (double) (now - nextPollAt) / intervalMillis) : 0;
+  }
+
+  /** Schedules the first poll of a partition that has never been polled. */
+  void firstPollAt(long at) {
+    if (nextPollAt == 0) {
+      nextPollAt = at;
+    }
+  }
+}
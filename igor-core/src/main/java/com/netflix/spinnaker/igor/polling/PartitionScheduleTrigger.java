@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+
+/**
+ * Schedules a polling monitor's next run at the earliest time one of its partitions becomes due,
+ * and at the latest one poll interval after the previous run completed. The first run happens
+ * after the initial delay.
+ */
+class PartitionScheduleTrigger implements Trigger {
+
+  private static final long MIN_DELAY_MS = 1000;
+
+  private final Supplier<Collection<PartitionSchedule>> schedules;
+  private final IntSupplier pollInterval;
+  private final long initialDelayMs;
+
+  PartitionScheduleTrigger(
+      Supplier<Collection<PartitionSchedule>> schedules,
+      IntSupplier pollInterval,
+      long initialDelayMs) {
+    this.schedules = schedules;
+    this.pollInterval = pollInterval;
+    this.initialDelayMs = initialDelayMs;
+  }
+
+  @Override
+  public Date nextExecutionTime(TriggerContext triggerContext) {
+    Date lastCompletion = triggerContext.lastCompletionTime();
+    if (lastCompletion == null) {
+      return new Date(System.currentTimeMillis() + initialDelayMs);
+    }
+
+    long completedAt = lastCompletion.getTime();
+    long next = completedAt + pollInterval.getAsInt() * 1000L;
+    for (PartitionSchedule schedule : schedules.get()) {
+      // partitions still due after a run were not polled by it (ex: out of service), they'll be
+      // picked up on the regular interval rather than spinning the scheduler
+      if (schedule.getNextPollAt() > completedAt) {
+        next = Math.min(next, schedule.getNextPollAt());
+      }
+    }
+    return new Date(Math.max(next, completedAt + MIN_DELAY_MS));
+  }
+}
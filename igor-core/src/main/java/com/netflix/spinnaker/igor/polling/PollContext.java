@@ -15,14 +15,50 @@
  */
 package com.netflix.spinnaker.igor.polling;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PollContext {
+  private static final ThreadLocal<PollContext> CURRENT = new ThreadLocal<>();
+  private static final String SUB_PARTITION_SEPARATOR = ".shard";
+
   public final String partitionName;
   public final Map<String, Object> context;
   public final boolean fastForward;
 
+  /**
+   * The sub-partition (ex: a slice of a Jenkins master's jobs) this context covers, or -1 if it
+   * covers the whole partition.
+   */
+  public final int subPartition;
+
+  /** The number of sub-partitions the partition is split into; 1 if it is not split. */
+  public final int subPartitionCount;
+
+  /** Counts the items of the delta being generated, so generation can stop once it is too big. */
+  public final DeltaItemCounter deltaItems = new DeltaItemCounter();
+
+  /**
+   * Whether this is a shadow poll, whose delta is generated but must not be written anywhere; see
+   * {@link CommonPollingMonitor#setShadow}.
+   */
+  volatile boolean shadow;
+
+  /** Time spent waiting for the partition's lock; see {@link PollPhase}. */
+  volatile long lockWaitNanos;
+
+  /** Time spent publishing events while committing the delta; see {@link PollPhase}. */
+  final LongAdder eventPublishNanos = new LongAdder();
+
+  /** Epoch millis by which generation must stop, derived from the duration of the poll's lock. */
+  private volatile long deadline = Long.MAX_VALUE;
+
+  /** Whether generation was stopped at the deadline, leaving part of the delta to the next poll. */
+  private volatile boolean stoppedAtDeadline;
+
   public PollContext(String partitionName) {
     this(partitionName, new HashMap<>());
   }
@@ -36,12 +72,119 @@ public class PollContext {
   }
 
   public PollContext(String partitionName, Map<String, Object> context, boolean fastForward) {
+    this(partitionName, context, fastForward, -1, 1);
+  }
+
+  public PollContext(
+      String partitionName,
+      Map<String, Object> context,
+      boolean fastForward,
+      int subPartition,
+      int subPartitionCount) {
     this.partitionName = partitionName;
     this.context = context;
     this.fastForward = fastForward;
+    this.subPartition = subPartition;
+    this.subPartitionCount = subPartitionCount;
   }
 
   public PollContext fastForward() {
-    return new PollContext(partitionName, context, true);
+    return new PollContext(partitionName, context, true, subPartition, subPartitionCount);
+  }
+
+  /** Whether this is a shadow poll, which must not write to caches nor to the CI server. */
+  public boolean isShadow() {
+    return shadow;
+  }
+
+  public boolean isSubPartitioned() {
+    return subPartition >= 0;
+  }
+
+  /**
+   * Identifies the unit of work this context covers: the partition name, suffixed with the
+   * sub-partition if any. Locks, schedules and per-partition metrics are keyed by it.
+   */
+  public String getPartitionKey() {
+    return isSubPartitioned()
+        ? partitionName + SUB_PARTITION_SEPARATOR + subPartition
+        : partitionName;
+  }
+
+  /** Returns the name of the partition a {@link #getPartitionKey() partition key} belongs to. */
+  public static String getPartitionName(String partitionKey) {
+    int separator = partitionKey.lastIndexOf(SUB_PARTITION_SEPARATOR);
+    return separator >= 0
+            && partitionKey.substring(separator + SUB_PARTITION_SEPARATOR.length()).matches("\\d+")
+        ? partitionKey.substring(0, separator)
+        : partitionKey;
+  }
+
+  /**
+   * Whether an item (ex: a job name) of the partition belongs to this context. Items are assigned
+   * to sub-partitions by a stable hash of their name, so every replica agrees on the assignment.
+   */
+  public boolean includes(String item) {
+    return !isSubPartitioned() || Math.floorMod(item.hashCode(), subPartitionCount) == subPartition;
+  }
+
+  /** Returns the deadline (epoch millis) of the poll, or {@code Long.MAX_VALUE} if it has none. */
+  public long getDeadline() {
+    return deadline;
+  }
+
+  void setDeadline(long deadline) {
+    this.deadline = deadline;
+  }
+
+  /** Returns the time left before the deadline, negative once it is past. */
+  public long getRemainingMillis() {
+    return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.currentTimeMillis();
+  }
+
+  /**
+   * Monitors call this between the downstream calls they make per item while generating a delta,
+   * and start no more items once it returns true. The items generated by then are committed as a
+   * partial delta; the rest are picked up by the next poll.
+   */
+  public boolean isPastDeadline() {
+    if (System.currentTimeMillis() < deadline) {
+      return false;
+    }
+    stoppedAtDeadline = true;
+    return true;
+  }
+
+  boolean isStoppedAtDeadline() {
+    return stoppedAtDeadline;
+  }
+
+  /** Returns the context being polled on the current thread, if any. */
+  public static PollContext current() {
+    return CURRENT.get();
+  }
+
+  /** Runs an action with this context as the {@link #current()} one. */
+  public void runBound(Runnable action) {
+    PollContext previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      action.run();
+    } finally {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    }
+  }
+
+  /** Splits this context into {@code count} sub-partitions. */
+  public List<PollContext> subPartitions(int count) {
+    List<PollContext> subPartitions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      subPartitions.add(new PollContext(partitionName, context, fastForward, i, count));
+    }
+    return subPartitions;
   }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * Creates the calls of a client with a call timeout capped to the time left before the deadline of
+ * the poll making them, so a slow build server, even one dripping its response, can't hold a poll
+ * past the expiry of its lock. Calls made outside of a poll (ex: from controllers) are left
+ * untouched.
+ *
+ * <p>The call timeout spans the whole call, from connecting to reading the response body. OkHttp
+ * starts it when the call is executed, before any interceptor runs, so it is set here rather than
+ * from an interceptor.
+ */
+public class PollDeadlineCallFactory implements Call.Factory {
+  private final OkHttpClient client;
+
+  public PollDeadlineCallFactory(OkHttpClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public Call newCall(Request request) {
+    Call call = client.newCall(request);
+    PollContext ctx = PollContext.current();
+    if (ctx == null || ctx.getDeadline() == Long.MAX_VALUE) {
+      return call;
+    }
+    long remaining = Math.max(1, ctx.getRemainingMillis());
+    // a call timeout of 0 means none, so it is always capped
+    long timeout = client.callTimeoutMillis();
+    call.timeout()
+        .timeout(timeout == 0 ? remaining : Math.min(timeout, remaining), TimeUnit.MILLISECONDS);
+    return call;
+  }
+}
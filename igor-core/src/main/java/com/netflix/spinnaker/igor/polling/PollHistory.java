@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+/**
+ * The most recent polls of a partition. Slots are allocated up front and overwritten in turn, so
+ * recording a poll allocates nothing; entries are only created when the history is read.
+ */
+public class PollHistory {
+
+  /** How the poll went about the partition's lock. */
+  public enum LockOutcome {
+    ACQUIRED,
+    NOT_ACQUIRED,
+    /** No lock service is configured. */
+    DISABLED
+  }
+
+  @Value
+  public static class Entry {
+    long startedAt;
+    LockOutcome lockOutcome;
+    long lockWaitMillis;
+    long generateMillis;
+    long thresholdCheckMillis;
+    long commitMillis;
+    long eventPublishMillis;
+    int deltaSize;
+    boolean overThreshold;
+    @Nullable String error;
+    /** Whether the poll was a shadow one, whose delta was generated but not committed. */
+    boolean shadow;
+    /** The bytes allocated by the polling thread during a shadow poll. */
+    long allocatedBytes;
+  }
+
+  private static class Slot {
+    long startedAt;
+    LockOutcome lockOutcome;
+    long lockWaitNanos;
+    long generateNanos;
+    long thresholdCheckNanos;
+    long commitNanos;
+    long eventPublishNanos;
+    int deltaSize;
+    boolean overThreshold;
+    String error;
+    boolean shadow;
+    long allocatedBytes;
+  }
+
+  private final Slot[] slots;
+  private int next;
+  private int size;
+
+  public PollHistory(int capacity) {
+    slots = new Slot[Math.max(1, capacity)];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = new Slot();
+    }
+  }
+
+  /**
+   * Records a poll.
+   *
+   * @param error the class name of the exception the poll failed with, if any
+   */
+  public void record(
+      long startedAt,
+      LockOutcome lockOutcome,
+      long lockWaitNanos,
+      long generateNanos,
+      long thresholdCheckNanos,
+      long commitNanos,
+      long eventPublishNanos,
+      int deltaSize,
+      boolean overThreshold,
+      @Nullable String error) {
+    record(
+        startedAt,
+        lockOutcome,
+        lockWaitNanos,
+        generateNanos,
+        thresholdCheckNanos,
+        commitNanos,
+        eventPublishNanos,
+        deltaSize,
+        overThreshold,
+        error,
+        false,
+        0);
+  }
+
+  /**
+   * Records a poll, shadow or not.
+   *
+   * @param error the class name of the exception the poll failed with, if any
+   * @param allocatedBytes the bytes allocated by the polling thread, if measured
+   */
+  public synchronized void record(
+      long startedAt,
+      LockOutcome lockOutcome,
+      long lockWaitNanos,
+      long generateNanos,
+      long thresholdCheckNanos,
+      long commitNanos,
+      long eventPublishNanos,
+      int deltaSize,
+      boolean overThreshold,
+      @Nullable String error,
+      boolean shadow,
+      long allocatedBytes) {
+    Slot slot = slots[next];
+    slot.startedAt = startedAt;
+    slot.lockOutcome = lockOutcome;
+    slot.lockWaitNanos = lockWaitNanos;
+    slot.generateNanos = generateNanos;
+    slot.thresholdCheckNanos = thresholdCheckNanos;
+    slot.commitNanos = commitNanos;
+    slot.eventPublishNanos = eventPublishNanos;
+    slot.deltaSize = deltaSize;
+    slot.overThreshold = overThreshold;
+    slot.error = error;
+    slot.shadow = shadow;
+    slot.allocatedBytes = allocatedBytes;
+    next = (next + 1) % slots.length;
+    size = Math.min(size + 1, slots.length);
+  }
+
+  /** Returns the recorded polls, most recent first. */
+  public synchronized List<Entry> getEntries() {
+    List<Entry> entries = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      Slot slot = slots[Math.floorMod(next - i, slots.length)];
+      entries.add(
+          new Entry(
+              slot.startedAt,
+              slot.lockOutcome,
+              toMillis(slot.lockWaitNanos),
+              toMillis(slot.generateNanos),
+              toMillis(slot.thresholdCheckNanos),
+              toMillis(slot.commitNanos),
+              toMillis(slot.eventPublishNanos),
+              slot.deltaSize,
+              slot.overThreshold,
+              slot.error,
+              slot.shadow,
+              slot.allocatedBytes));
+    }
+    return entries;
+  }
+
+  private static long toMillis(long nanos) {
+    return nanos / 1_000_000;
+  }
+}
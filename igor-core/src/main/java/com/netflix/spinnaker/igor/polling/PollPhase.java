@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+/** The phases of a partition's poll, each timed separately. */
+public enum PollPhase {
+  /** Waiting to acquire the partition's lock. */
+  LOCK_WAIT("lockWait"),
+  /** Generating the delta, downstream calls to the build server included. */
+  GENERATE("generate"),
+  /** Checking the delta against the item upper threshold. */
+  THRESHOLD_CHECK("thresholdCheck"),
+  /** Committing the delta to the cache, event publishing excluded. */
+  COMMIT("commit"),
+  /** Publishing events (ex: to Echo) for the committed items. */
+  EVENT_PUBLISH("eventPublish");
+
+  private final String tag;
+
+  PollPhase(String tag) {
+    this.tag = tag;
+  }
+
+  /** The value of the {@code phase} tag of the phase's timer. */
+  public String getTag() {
+    return tag;
+  }
+}
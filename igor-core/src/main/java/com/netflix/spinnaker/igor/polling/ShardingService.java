@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.polling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hashing;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shards polling monitor partitions across igor replicas. Replicas register themselves in Redis
+ * with periodic heartbeats, and each one owns the slice of a consistent hash ring of partitions
+ * nearest to its virtual nodes. When a replica stops heartbeating, its slice moves to the others
+ * once its lease expires.
+ *
+ * <p>If membership cannot be determined (ex: Redis is unavailable), every replica owns every
+ * partition and the {@link LockService} decides who polls, as it does without sharding.
+ */
+public class ShardingService {
+  private static final Logger log = LoggerFactory.getLogger(ShardingService.class);
+  private static final String ID = "pollers:members";
+
+  private final RedisClientDelegate redisClientDelegate;
+  private final IgorConfigurationProperties igorProperties;
+  private final DiscoveryStatusListener discoveryStatusListener;
+  private final String nodeId;
+  private final Duration heartbeatRate;
+  private final Duration leaseDuration;
+  private final int virtualNodes;
+  private final ScheduledExecutorService heartbeatExecutor =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "polling-sharding-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private volatile NavigableMap<Long, String> ring = new TreeMap<>();
+  private volatile int memberCount;
+
+  public ShardingService(
+      RedisClientDelegate redisClientDelegate,
+      IgorConfigurationProperties igorProperties,
+      DiscoveryStatusListener discoveryStatusListener,
+      String nodeId,
+      Duration heartbeatRate,
+      Duration leaseDuration,
+      int virtualNodes) {
+    this.redisClientDelegate = redisClientDelegate;
+    this.igorProperties = igorProperties;
+    this.discoveryStatusListener = discoveryStatusListener;
+    this.nodeId = nodeId;
+    this.heartbeatRate = heartbeatRate;
+    this.leaseDuration = leaseDuration;
+    this.virtualNodes = virtualNodes;
+  }
+
+  @PostConstruct
+  public void start() {
+    log.info("Sharding polling partitions as {}", nodeId);
+    heartbeatExecutor.scheduleWithFixedDelay(
+        this::heartbeat, 0, heartbeatRate.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    heartbeatExecutor.shutdownNow();
+    try {
+      // hand over this node's slice right away rather than once its lease expires
+      redisClientDelegate.withCommandsClient(c -> c.zrem(key(), nodeId));
+    } catch (Exception e) {
+      log.warn("Failed to deregister {} from polling membership", nodeId, e);
+    }
+  }
+
+  /** Registers this node (when in service), expires dead ones and rebuilds the hash ring. */
+  public void heartbeat() {
+    long now = System.currentTimeMillis();
+    long expiredBefore = now - leaseDuration.toMillis();
+    boolean inService = discoveryStatusListener.isEnabled();
+    try {
+      Collection<String> members =
+          redisClientDelegate.withCommandsClient(
+              c -> {
+                if (inService) {
+                  c.zadd(key(), now, nodeId);
+                } else {
+                  c.zrem(key(), nodeId);
+                }
+                c.zremrangeByScore(key(), 0, expiredBefore);
+                return c.zrangeByScore(key(), expiredBefore, Double.MAX_VALUE);
+              });
+      rebuildRing(members);
+    } catch (Exception e) {
+      log.warn("Failed to refresh polling membership, every partition will be lock-raced", e);
+      ring = new TreeMap<>();
+      memberCount = 0;
+    }
+  }
+
+  /** Whether this node is responsible for polling the given partition of a monitor. */
+  public boolean owns(String monitor, String partition) {
+    NavigableMap<Long, String> ring = this.ring;
+    if (ring.isEmpty()) {
+      return true;
+    }
+    Map.Entry<Long, String> owner = ring.ceilingEntry(hash(monitor + "." + partition));
+    if (owner == null) {
+      owner = ring.firstEntry();
+    }
+    return nodeId.equals(owner.getValue());
+  }
+
+  /**
+   * Whether partitions are currently sharded, rather than raced for by every replica as they are
+   * when membership can't be determined.
+   */
+  public boolean isSharding() {
+    return !ring.isEmpty();
+  }
+
+  /** The number of live replicas sharing partitions, or 0 if membership is unknown. */
+  public int getMemberCount() {
+    return memberCount;
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  void rebuildRing(Collection<String> members) {
+    NavigableMap<Long, String> ring = new TreeMap<>();
+    for (String member : members) {
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.put(hash(member + "#" + i), member);
+      }
+    }
+    this.ring = ring;
+    this.memberCount = members.size();
+  }
+
+  private static long hash(String value) {
+    return Hashing.murmur3_128().hashString(value, UTF_8).asLong();
+  }
+
+  private String key() {
+    return igorProperties.getSpinnaker().getJedis().getPrefix() + ":" + ID;
+  }
+}
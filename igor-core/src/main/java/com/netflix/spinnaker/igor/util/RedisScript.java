@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.spinnaker.igor.util;
+
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+/**
+ * A Lua script run with EVALSHA, so that only its digest is sent once Redis has cached it. The
+ * first call on a server without the script falls back to EVAL, which caches it.
+ */
+public class RedisScript {
+  private final String script;
+  private final String sha;
+
+  public RedisScript(String script) {
+    this.script = script;
+    this.sha = sha1Hex(script);
+  }
+
+  public Object eval(
+      RedisClientDelegate redisClientDelegate, List<String> keys, List<String> args) {
+    return redisClientDelegate.withScriptingClient(
+        c -> {
+          try {
+            return c.evalsha(sha, keys, args);
+          } catch (JedisNoScriptException e) {
+            return c.eval(script, keys, args);
+          }
+        });
+  }
+
+  private static String sha1Hex(String script) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 is not available", e);
+    }
+  }
+}
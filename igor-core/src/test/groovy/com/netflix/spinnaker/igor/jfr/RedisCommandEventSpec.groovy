@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.jfr
+
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate
+import groovy.transform.CompileStatic
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.function.Consumer
+
+class RedisCommandEventSpec extends Specification {
+
+  RedisClientDelegate delegate = Mock(RedisClientDelegate)
+  RedisClientDelegate traced = RedisCommandEvent.traced("testCache", delegate)
+  Path file = Files.createTempFile("igor", ".jfr")
+
+  def cleanup() {
+    Files.deleteIfExists(file)
+  }
+
+  def "uses of a traced delegate are recorded along with the calling method"() {
+    given:
+    Recording recording = new Recording()
+    recording.enable(RedisCommandEvent).withThreshold(Duration.ZERO)
+
+    when:
+    recording.start()
+    lookUp(traced)
+    recording.stop()
+    recording.dump(file)
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+
+    then:
+    1 * delegate.withCommandsClient(_ as Consumer)
+    events.size() == 1
+    events[0].getString("cache") == "testCache"
+    events[0].getString("operation") == "lookUp"
+    events[0].getString("command") == "withCommandsClient"
+
+    cleanup:
+    recording.close()
+  }
+
+  def "calls go through to the delegate when not recording"() {
+    when:
+    lookUp(traced)
+
+    then:
+    1 * delegate.withCommandsClient(_ as Consumer)
+  }
+
+  @CompileStatic
+  private static void lookUp(RedisClientDelegate redis) {
+    redis.withCommandsClient({ commands -> } as Consumer)
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.limits
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.igor.IgorConfigurationProperties
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate
+import spock.lang.Specification
+
+import java.util.function.Function
+
+import static com.netflix.spinnaker.igor.limits.DownstreamLane.API
+import static com.netflix.spinnaker.igor.limits.DownstreamLane.POLLER
+
+class DownstreamLimiterSpec extends Specification {
+
+  IgorConfigurationProperties properties = new IgorConfigurationProperties()
+  DefaultRegistry registry = new DefaultRegistry()
+  RedisClientDelegate redisClientDelegate = Mock(RedisClientDelegate)
+
+  def "the poller and the API have bulkheads of their own"() {
+    given:
+    properties.client.limits.poller.maxConcurrentCalls = 1
+    def limiter = new DownstreamLimiter(redisClientDelegate, properties, registry)
+    limiter.acquire("master1", POLLER)
+
+    when:
+    limiter.acquire("master1", POLLER)
+
+    then:
+    thrown(DownstreamLimitExceededException)
+    denied("master1", POLLER, "bulkheadFull") == 1
+
+    when: "the API and other masters are not affected"
+    limiter.acquire("master1", API)
+    limiter.acquire("master2", POLLER)
+
+    then:
+    noExceptionThrown()
+  }
+
+  def "calls over the shared rate are denied and give their bulkhead permit back"() {
+    given:
+    properties.client.limits.api.maxConcurrentCalls = 1
+    properties.client.limits.api.callsPerSecond = 1
+    redisClientDelegate.supportsScripting() >> true
+    def limiter = new DownstreamLimiter(redisClientDelegate, properties, registry)
+
+    when:
+    limiter.acquire("master1", API)
+
+    then:
+    1 * redisClientDelegate.withScriptingClient(_ as Function) >> 0L
+    thrown(DownstreamLimitExceededException)
+    denied("master1", API, "rateLimited") == 1
+
+    when:
+    limiter.acquire("master1", API).run()
+
+    then:
+    1 * redisClientDelegate.withScriptingClient(_ as Function) >> 1L
+    noExceptionThrown()
+  }
+
+  def "calls are let through when the shared rate can't be checked"() {
+    given:
+    properties.client.limits.api.callsPerSecond = 1
+    redisClientDelegate.supportsScripting() >> true
+    redisClientDelegate.withScriptingClient(_ as Function) >> { throw new RuntimeException("unreachable") }
+    def limiter = new DownstreamLimiter(redisClientDelegate, properties, registry)
+
+    when:
+    limiter.acquire("master1", API).run()
+
+    then:
+    noExceptionThrown()
+  }
+
+  def "per-master limits override the defaults"() {
+    given:
+    properties.client.limits.masters["master1"] = new IgorConfigurationProperties.ClientProperties.MasterLimitsProperties(
+      poller: new IgorConfigurationProperties.ClientProperties.LaneLimitsProperties(maxConcurrentCalls: 1))
+    def limiter = new DownstreamLimiter(redisClientDelegate, properties, registry)
+    limiter.acquire("master1", POLLER)
+
+    when:
+    limiter.acquire("master1", POLLER)
+
+    then:
+    thrown(DownstreamLimitExceededException)
+  }
+
+  private long denied(String master, DownstreamLane lane, String reason) {
+    registry.counter("downstream.limits.denied", "master", master, "lane", lane.tag, "reason", reason).count()
+  }
+}
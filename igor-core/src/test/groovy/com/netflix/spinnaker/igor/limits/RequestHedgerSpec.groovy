@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.limits
+
+import com.netflix.spectator.api.DefaultRegistry
+import okhttp3.Request
+import okio.Timeout
+import retrofit2.Call
+import retrofit2.Callback
+import retrofit2.Response
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class RequestHedgerSpec extends Specification {
+
+  DefaultRegistry registry = new DefaultRegistry()
+
+  def "a call slower than the observed p95 is hedged and the fastest answer wins"() {
+    given:
+    def hedger = new RequestHedger("master1", 100, 10, registry)
+    warmUp(hedger)
+    def slowCall = new FakeCall("primary", 5000, new FakeCall("hedge", 0, null))
+
+    when:
+    def result = hedger.execute(slowCall, { Call<String> call -> call.execute().body() })
+
+    then:
+    result == "hedge"
+    slowCall.canceled
+    counter("downstream.hedging.hedged") == 1
+    counter("downstream.hedging.won") == 1
+  }
+
+  def "the call is made on the calling thread and only the hedge on the hedging pool"() {
+    given:
+    def hedger = new RequestHedger("master1", 100, 10, registry)
+    warmUp(hedger)
+    def slowCall = new FakeCall("primary", 5000, new FakeCall("hedge", 0, null))
+    def threads = [:].asSynchronized()
+
+    when:
+    hedger.execute(slowCall, { Call<String> call ->
+      threads[call.value] = Thread.currentThread()
+      call.execute().body()
+    })
+
+    then:
+    threads["primary"] == Thread.currentThread()
+    threads["hedge"].name.startsWith("hedge-master1-")
+  }
+
+  def "hedges are not sent once the extra load budget is spent"() {
+    given:
+    def hedger = new RequestHedger("master1", 0, 10, registry)
+    warmUp(hedger)
+    def slowCall = new FakeCall("primary", 100, new FakeCall("hedge", 0, null))
+
+    when:
+    def result = hedger.execute(slowCall, { Call<String> call -> call.execute().body() })
+
+    then:
+    result == "primary"
+    counter("downstream.hedging.hedged") == 0
+  }
+
+  def "a failed call is not hidden by the hedging"() {
+    given:
+    def hedger = new RequestHedger("master1", 100, 10, registry)
+    warmUp(hedger)
+
+    when:
+    hedger.execute(new FakeCall("primary", 0, null), { Call<String> call ->
+      throw new IllegalArgumentException("boom")
+    })
+
+    then:
+    thrown(IllegalArgumentException)
+  }
+
+  private static void warmUp(RequestHedger hedger) {
+    30.times {
+      hedger.execute(new FakeCall("warmUp", 0, null), { Call<String> call -> call.execute().body() })
+    }
+  }
+
+  private long counter(String name) {
+    return registry.counter(name, "master", "master1").count()
+  }
+
+  static class FakeCall implements Call<String> {
+    final String value
+    final long delayMillis
+    final FakeCall clone
+    final CountDownLatch cancellation = new CountDownLatch(1)
+
+    FakeCall(String value, long delayMillis, FakeCall clone) {
+      this.value = value
+      this.delayMillis = delayMillis
+      this.clone = clone
+    }
+
+    @Override
+    Response<String> execute() throws IOException {
+      if (cancellation.await(delayMillis, TimeUnit.MILLISECONDS)) {
+        throw new IOException("Canceled")
+      }
+      return Response.success(value)
+    }
+
+    @Override
+    void enqueue(Callback<String> callback) {
+      throw new UnsupportedOperationException()
+    }
+
+    @Override
+    boolean isExecuted() {
+      return false
+    }
+
+    @Override
+    void cancel() {
+      cancellation.countDown()
+    }
+
+    @Override
+    boolean isCanceled() {
+      return cancellation.count == 0
+    }
+
+    @Override
+    Call<String> clone() {
+      return clone
+    }
+
+    @Override
+    Request request() {
+      return null
+    }
+
+    @Override
+    Timeout timeout() {
+      return Timeout.NONE
+    }
+  }
+}
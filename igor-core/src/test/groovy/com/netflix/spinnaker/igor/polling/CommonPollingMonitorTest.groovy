@@ -20,6 +20,8 @@ import com.netflix.spectator.api.Counter
 import com.netflix.spectator.api.Id
 import com.netflix.spectator.api.Registry
 import com.netflix.spectator.api.Timer
+import com.netflix.spectator.api.histogram.PercentileDistributionSummary
+import com.netflix.spectator.api.histogram.PercentileTimer
 import com.netflix.spectator.api.patterns.PolledMeter
 import com.netflix.spectator.micrometer.MicrometerRegistry
 import com.netflix.spinnaker.igor.IgorConfigurationProperties
@@ -31,9 +33,14 @@ import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import org.mockito.Mockito
 import org.springframework.scheduling.TaskScheduler
 import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
 
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CyclicBarrier
 import java.util.concurrent.Executors
 import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
 
 import static org.mockito.Mockito.mock
 
@@ -137,6 +144,520 @@ class CommonPollingMonitorTest extends Specification {
     timer.totalTime() > 0
   }
 
+  def testIsolatedMonitorsPollOnTheirOwnLane() {
+    given:
+    properties.spinnaker.build.isolateMonitors = true
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): 10])
+    def conditions = new PollingConditions(timeout: 10)
+
+    when:
+    monitor.onApplicationEvent(Mock(RemoteStatusChangedEvent))
+
+    then: "the shared scheduler isn't used"
+    conditions.eventually {
+      assert monitor.pollingThreads.size() == 2
+    }
+    monitor.pollingThreads.every { it.startsWith(MONITOR + "-cycle-") }
+    Mockito.verifyNoInteractions(scheduler)
+
+    and: "the lane is idle once the cycle is over"
+    conditions.eventually {
+      PolledMeter.update(registry)
+      assert registry.gauge(instrumentation.getLaneActiveThreadsId().withTag("monitor", MONITOR)).value() == 0
+    }
+
+    cleanup:
+    monitor.stop()
+  }
+
+  def testPartitionsArePolledConcurrently() {
+    given:
+    properties.spinnaker.build.pollConcurrency = 2
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): 10])
+    // neither partition gets past generating its delta until the other one is generating too
+    def barrier = new CyclicBarrier(2)
+    monitor.setBarrier(barrier)
+    Timer partitionOneTimer = registry.timer(
+      instrumentation.partitionPollTimingId.withTags("monitor", MONITOR, "partition", PARTITION_1))
+    Timer partitionTwoTimer = registry.timer(
+      instrumentation.partitionPollTimingId.withTags("monitor", MONITOR, "partition", PARTITION_2))
+
+    when:
+    monitor.pollPartitions([new PollContext(PARTITION_1), new PollContext(PARTITION_2)])
+    PolledMeter.update(registry)
+
+    then: "the partitions overlapped"
+    !barrier.broken
+    partitionOneTimer.count() == 1
+    partitionTwoTimer.count() == 1
+    registry.gauge(instrumentation.itemsCachedId.withTags("monitor", MONITOR, "partition", PARTITION_1)).value() == DELTA_SIZE_PARTITION_1
+    registry.gauge(instrumentation.itemsCachedId.withTags("monitor", MONITOR, "partition", PARTITION_2)).value() == 10
+
+    cleanup:
+    monitor.stop()
+  }
+
+  def testLaneOnlyCountsTheThreadsPollingPartitions() {
+    given:
+    properties.spinnaker.build.isolateMonitors = true
+    properties.spinnaker.build.pollConcurrency = 2
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): 10])
+    Id activeThreadsId = instrumentation.getLaneActiveThreadsId().withTag("monitor", MONITOR)
+    def activeThreads = []
+    // sampled while both partitions are being polled and the cycle thread waits on them
+    monitor.setBarrier(new CyclicBarrier(2, {
+      PolledMeter.update(registry)
+      activeThreads << registry.gauge(activeThreadsId).value()
+    }))
+    def conditions = new PollingConditions(timeout: 10)
+
+    when:
+    monitor.onApplicationEvent(Mock(RemoteStatusChangedEvent))
+
+    then:
+    conditions.eventually {
+      assert !activeThreads.empty
+    }
+    activeThreads.every { it == 2d }
+
+    cleanup:
+    monitor.stop()
+  }
+
+  def testForEachInPartitionBoundsConcurrencyInVirtualMode() {
+    given:
+    properties.spinnaker.build.executionMode = IgorConfigurationProperties.SpinnakerProperties.BuildProperties.ExecutionMode.VIRTUAL
+    properties.spinnaker.build.partitionConcurrency = 2
+    def inFlight = new java.util.concurrent.atomic.AtomicInteger()
+    def maxInFlight = new java.util.concurrent.atomic.AtomicInteger()
+    def processed = Collections.synchronizedList([])
+
+    when:
+    monitor.forEachInPartition(new PollContext(PARTITION_1), (1..10).toList(), { Integer item ->
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), { int a, int b -> Math.max(a, b) })
+      Thread.sleep(10)
+      inFlight.decrementAndGet()
+      processed << item
+    })
+
+    then:
+    processed.sort() == (1..10).toList()
+    maxInFlight.get() <= 2
+
+    cleanup:
+    monitor.stop()
+  }
+
+  def testForEachInPartitionStartsNoMoreItemsOnceOneIsOverTheThreshold() {
+    given:
+    properties.spinnaker.build.executionMode = IgorConfigurationProperties.SpinnakerProperties.BuildProperties.ExecutionMode.VIRTUAL
+    properties.spinnaker.build.partitionConcurrency = 1
+    def started = Collections.synchronizedList([])
+
+    when:
+    monitor.forEachInPartition(new PollContext(PARTITION_1), (1..10).toList(), { Integer item ->
+      started << item
+      throw new ItemUpperThresholdExceededException(item)
+    })
+
+    then:
+    thrown(ItemUpperThresholdExceededException)
+    started == [1]
+
+    cleanup:
+    monitor.stop()
+  }
+
+  def testPollIntervalAdaptsToChangeRate() {
+    given:
+    properties.spinnaker.build.pollInterval = 60
+    properties.spinnaker.build.adaptivePolling.enabled = true
+    properties.spinnaker.build.adaptivePolling.minPollInterval = 15
+    properties.spinnaker.build.adaptivePolling.maxPollInterval = 200
+    Id pollIntervalId = instrumentation.pollIntervalId
+      .withTags("monitor", MONITOR, "partition", PARTITION_1)
+
+    when: "a partition stays idle"
+    monitor.setDeltasMap([(PARTITION_1): 0])
+    3.times { monitor.pollSingle(new PollContext(PARTITION_1)) }
+    PolledMeter.update(registry)
+
+    then: "it backs off up to the maximum interval"
+    monitor.getPartitionSchedule(PARTITION_1).interval == 200
+    registry.gauge(pollIntervalId).value() == 200
+    !monitor.getPartitionSchedule(PARTITION_1).isDue(System.currentTimeMillis())
+
+    when: "new items show up"
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1])
+    3.times { monitor.pollSingle(new PollContext(PARTITION_1)) }
+
+    then: "it tightens"
+    monitor.getPartitionSchedule(PARTITION_1).interval == 25
+
+    when: "new items keep showing up"
+    3.times { monitor.pollSingle(new PollContext(PARTITION_1)) }
+
+    then: "it tightens down to the minimum interval"
+    monitor.getPartitionSchedule(PARTITION_1).interval == 15
+  }
+
+  def testPollIntervalOnlyAdaptsWhenASingleReplicaPollsThePartition() {
+    given:
+    properties.spinnaker.build.pollInterval = 60
+    properties.spinnaker.build.adaptivePolling.enabled = true
+    properties.spinnaker.build.adaptivePolling.minPollInterval = 15
+    properties.spinnaker.build.adaptivePolling.maxPollInterval = 200
+    LockService lock = Mock(LockService) {
+      getLockDuration(_) >> { Duration duration -> duration }
+      acquire(_, _, _) >> { String name, Duration duration, Runnable action -> action.run() }
+    }
+    monitor = new DefaultPollingMonitor(
+      properties, registry, dynamicConfigService, discoveryStatusListener, Optional.of(lock),
+      scheduler)
+    monitor.setDeltasMap([(PARTITION_1): 0])
+
+    when: "replicas race for the partition's lock"
+    3.times { monitor.pollSingle(new PollContext(PARTITION_1)) }
+
+    then: "it keeps its configured interval"
+    monitor.getPartitionSchedule(PARTITION_1).interval == 60
+    monitor.getMaxPollInterval(PARTITION_1) == 60
+
+    when: "partitions are sharded across replicas"
+    monitor.setShardingService(Mock(ShardingService) {
+      isSharding() >> true
+      owns(MONITOR, _) >> true
+    })
+    3.times { monitor.pollSingle(new PollContext(PARTITION_1)) }
+
+    then: "it backs off"
+    monitor.getPartitionSchedule(PARTITION_1).interval == 200
+    monitor.getMaxPollInterval(PARTITION_1) == 200
+  }
+
+  def testPollIntervalAndLockDurationOverrides() {
+    given:
+    properties.spinnaker.build.pollInterval = 60
+    def monitorProperties = new IgorConfigurationProperties.SpinnakerProperties.BuildProperties.MonitorPollingProperties(
+      pollInterval: 300,
+      partitions: [(PARTITION_2): new IgorConfigurationProperties.SpinnakerProperties.BuildProperties.PartitionPollingProperties(
+        pollInterval: 30, lockDuration: 90)])
+    properties.spinnaker.build.monitors = [(MONITOR): monitorProperties]
+
+    expect:
+    monitor.getPollInterval() == 300
+    monitor.getPollInterval(PARTITION_1) == 300
+    monitor.getLockDuration(PARTITION_1) == 300
+    monitor.getPollInterval(PARTITION_2) == 30
+    monitor.getLockDuration(PARTITION_2) == 90
+  }
+
+  def testSubPartitionsAreAccountedSeparately() {
+    given:
+    monitor.setSubPartitions(2)
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1])
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+    PolledMeter.update(registry)
+
+    then:
+    monitor.polledContexts*.partitionKey == ["${PARTITION_1}.shard0", "${PARTITION_1}.shard1"]*.toString()
+    [0, 1].every {
+      registry.gauge(instrumentation.itemsCachedId
+        .withTags("monitor", MONITOR, "partition", "${PARTITION_1}.shard${it}".toString())).value() == DELTA_SIZE_PARTITION_1
+    }
+  }
+
+  def testItemsAreSplitAcrossSubPartitions() {
+    given:
+    def jobs = (1..100).collect { "job-$it".toString() }
+    def subPartitions = new PollContext(PARTITION_1).subPartitions(3)
+
+    expect:
+    jobs.every { job -> subPartitions.count { it.includes(job) } == 1 }
+    new PollContext(PARTITION_1).includes("any-job")
+  }
+
+  def testStreamedDeltaIsCommittedPageByPageAndAbortedOverThreshold() {
+    given:
+    properties.spinnaker.build.deltaPageSize = 100
+    monitor.setStreaming(true)
+    monitor.setDeltasMap([(PARTITION_1): 250, (PARTITION_2): DELTA_SIZE_PARTITION2])
+    Id itemsOverThresholdId = instrumentation.getItemsOverThresholdId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_2)
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then:
+    monitor.committedPageSizes == [100, 100, 50]
+
+    when:
+    monitor.committedPageSizes.clear()
+    monitor.pollSingle(new PollContext(PARTITION_2))
+    PolledMeter.update(registry)
+
+    then: "a delta counted over the threshold ahead of its first page commits nothing"
+    monitor.committedPageSizes.isEmpty()
+    registry.gauge(itemsOverThresholdId).value() == DELTA_SIZE_PARTITION2
+
+    when: "without a count, generation stops on the first page over the threshold"
+    monitor.setPreCounting(false)
+    monitor.pollSingle(new PollContext(PARTITION_2))
+    PolledMeter.update(registry)
+
+    then:
+    monitor.committedPageSizes == [100] * 10
+    registry.gauge(itemsOverThresholdId).value() == 1100
+
+    when: "fast-forwards are never aborted"
+    monitor.committedPageSizes.clear()
+    monitor.setPreCounting(true)
+    monitor.pollSingle(new PollContext(PARTITION_2).fastForward())
+
+    then:
+    monitor.committedPageSizes == [100] * 15
+  }
+
+  def testGenerationStopsAsSoonAsReportedItemsCrossTheThreshold() {
+    given:
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): DELTA_SIZE_PARTITION2])
+    monitor.setReportingItems(true)
+    Id itemsOverThresholdId = instrumentation.getItemsOverThresholdId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_2)
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_2))
+    PolledMeter.update(registry)
+
+    then:
+    monitor.generatedItems == 1000
+    monitor.committedPageSizes.isEmpty()
+    registry.gauge(itemsOverThresholdId).value() == 1001
+
+    when: "fast-forwards are never aborted"
+    monitor.generatedItems = 0
+    monitor.pollSingle(new PollContext(PARTITION_2).fastForward())
+
+    then:
+    monitor.generatedItems == DELTA_SIZE_PARTITION2
+    monitor.committedPageSizes == [DELTA_SIZE_PARTITION2]
+  }
+
+  def testPollStoppedAtItsDeadlineCommitsWhatItGenerated() {
+    given: "a lock, hence a deadline, that passes after 3 of the 5 items"
+    LockService lock = Mock(LockService) {
+      getLockDuration(_) >> { Duration duration -> duration }
+      acquire(_, _, _) >> { String name, Duration duration, Runnable action -> action.run() }
+    }
+    monitor = new DefaultPollingMonitor(
+      properties, registry, dynamicConfigService, discoveryStatusListener, Optional.of(lock),
+      scheduler)
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1])
+    monitor.setDeadlineAfterItems(3)
+    Counter deadlineExceeded = registry.counter(instrumentation.getDeadlineExceededId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1))
+    Counter failed = registry.counter(instrumentation.getPollCycleFailedId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1))
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then: "the items generated before the deadline are committed"
+    monitor.committedPageSizes == [3]
+    deadlineExceeded.count() == 1
+    failed.count() == 0
+    registry.distributionSummary(instrumentation.getPartialProgressId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1)).totalAmount() == 3
+
+    when: "shadow polls take no lock, so they have no deadline"
+    monitor.setDeadlineAfterItems(null)
+    monitor.setShadow(PARTITION_1, true)
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then:
+    monitor.polledContexts*.deadline.tail() == [Long.MAX_VALUE]
+  }
+
+  def testPollHasNoDeadlineWithoutALock() {
+    given:
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1])
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then:
+    monitor.polledContexts*.deadline == [Long.MAX_VALUE]
+    monitor.committedPageSizes == [DELTA_SIZE_PARTITION_1]
+  }
+
+  def testPhasesAndItemsAreRecordedPerPartition() {
+    given:
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1])
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then: "there is no lock to wait for"
+    PollPhase.values().collect { phase ->
+      PercentileTimer.get(registry, instrumentation.getPhaseTimingId()
+        .withTags("monitor", MONITOR, "partition", PARTITION_1, "phase", phase.tag)).count()
+    } == [0, 1, 1, 1, 1]
+    registry.counter(instrumentation.getItemsExaminedId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1)).count() == DELTA_SIZE_PARTITION_1 * 2
+    registry.counter(instrumentation.getItemsEmittedId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1)).count() == DELTA_SIZE_PARTITION_1
+  }
+
+  def testEventLatencyIsRecordedOnceTheEventIsDelivered() {
+    given:
+    def latency = PercentileDistributionSummary.get(registry, instrumentation.getEventLatencyId()
+      .withTags("monitor", MONITOR, "partition", PARTITION_1))
+
+    when:
+    monitor.publishEvent(PARTITION_1, Instant.now().minusSeconds(60)) {}
+    monitor.publishEvent(PARTITION_1, null) {}
+
+    then: "items without a finish time are not recorded"
+    latency.count() == 1
+    latency.totalAmount() >= 60_000
+
+    when:
+    monitor.publishEvent(PARTITION_1, Instant.now()) { throw new RuntimeException("Echo is down") }
+
+    then: "nor are undelivered events"
+    thrown(RuntimeException)
+    latency.count() == 1
+  }
+
+  def testPartitionsAreStaggeredAcrossTheirPollInterval() {
+    given:
+    properties.spinnaker.build.pollInterval = 60
+    properties.spinnaker.build.scheduling.staggerPartitions = true
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): DELTA_SIZE_PARTITION_1])
+    def start = System.currentTimeMillis()
+
+    when:
+    monitor.pollPartitions([new PollContext(PARTITION_1), new PollContext(PARTITION_2)])
+
+    then: "the second partition is first due half an interval later"
+    monitor.polledContexts*.partitionName == [PARTITION_1]
+    monitor.getPartitionSchedule(PARTITION_2).nextPollAt >= start + 30_000
+    monitor.getPartitionSchedule(PARTITION_2).nextPollAt <= System.currentTimeMillis() + 30_000
+  }
+
+  def testPollsAreJitteredWithinTheConfiguredShareOfTheirInterval() {
+    given:
+    def schedule = new PartitionSchedule(60)
+
+    expect:
+    (1..100).every {
+      schedule.polled(0, 0.1)
+      schedule.nextPollAt >= 54_000 && schedule.nextPollAt <= 66_000
+    }
+    (1..100).collect {
+      schedule.polled(0, 0.1)
+      schedule.nextPollAt
+    }.unique().size() > 1
+  }
+
+  def testBusiestPartitionsArePolledFirstWhenPrioritized() {
+    given: "partitions due again as soon as they have been polled"
+    properties.spinnaker.build.pollInterval = 0
+    properties.spinnaker.build.scheduling.prioritizePartitions = true
+    monitor.setDeltasMap([(PARTITION_1): 0, (PARTITION_2): DELTA_SIZE_PARTITION_1])
+    monitor.pollPartitions([new PollContext(PARTITION_1), new PollContext(PARTITION_2)])
+
+    when:
+    monitor.pollPartitions([new PollContext(PARTITION_1), new PollContext(PARTITION_2)])
+
+    then: "the partition that had new items is polled first"
+    monitor.polledContexts*.partitionName == [PARTITION_1, PARTITION_2, PARTITION_2, PARTITION_1]
+    monitor.getPartitionSchedule(PARTITION_2).activity > monitor.getPartitionSchedule(PARTITION_1).activity
+  }
+
+  def testShadowPollsGenerateTheirDeltaWithoutCommittingIt() {
+    given:
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): DELTA_SIZE_PARTITION_1])
+    monitor.setShadow(PARTITION_1, true)
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+    monitor.pollSingle(new PollContext(PARTITION_2))
+
+    then: "only the partition not in shadow commits"
+    monitor.polledContexts*.partitionName == [PARTITION_1, PARTITION_2]
+    monitor.committedPageSizes == [DELTA_SIZE_PARTITION_1]
+    with(monitor.getPollHistory(PARTITION_1).entries[0]) {
+      shadow
+      deltaSize == DELTA_SIZE_PARTITION_1
+      commitMillis == 0
+    }
+    !monitor.getPollHistory(PARTITION_2).entries[0].shadow
+
+    when: "shadow polling is switched off for the whole monitor"
+    monitor.setShadow(null, false)
+    monitor.pollSingle(new PollContext(PARTITION_1))
+
+    then:
+    monitor.committedPageSizes == [DELTA_SIZE_PARTITION_1, DELTA_SIZE_PARTITION_1]
+  }
+
+  def testShadowPollsLeaveTheProductionStateAlone() {
+    given:
+    monitor.setShardingService(Mock(ShardingService) {
+      isSharding() >> true
+      owns(MONITOR, PARTITION_1) >> false
+      owns(MONITOR, PARTITION_2) >> true
+    })
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): DELTA_SIZE_PARTITION_1])
+    monitor.setShadow(null, true)
+    Timer partitionOneTimer = registry.timer(
+      instrumentation.partitionPollTimingId.withTags("monitor", MONITOR, "partition", PARTITION_1))
+
+    when:
+    monitor.pollPartitions([new PollContext(PARTITION_1), new PollContext(PARTITION_2)])
+
+    then: "the partition owned by another replica is shadow polled, the one only this one polls is committed"
+    monitor.polledContexts*.partitionName == [PARTITION_1, PARTITION_2]
+    monitor.committedPageSizes == [DELTA_SIZE_PARTITION_1]
+    monitor.getPollHistory(PARTITION_1).entries[0].shadow
+    !monitor.getPollHistory(PARTITION_2).entries[0].shadow
+
+    and: "the shadow poll fed neither the production metrics nor the partition's schedule"
+    partitionOneTimer.count() == 0
+    monitor.getPartitionSchedule(PARTITION_1).nextPollAt == 0
+    monitor.getPartitionSchedule(PARTITION_2).nextPollAt > 0
+  }
+
+  def testPollHistoryKeepsTheMostRecentPolls() {
+    given:
+    properties.spinnaker.build.pollHistorySize = 2
+    monitor.setDeltasMap([(PARTITION_1): DELTA_SIZE_PARTITION_1, (PARTITION_2): DELTA_SIZE_PARTITION2])
+
+    when:
+    monitor.pollSingle(new PollContext(PARTITION_1))
+    monitor.pollSingle(new PollContext(PARTITION_2))
+    monitor.pollSingle(new PollContext(PARTITION_1))
+    monitor.setFailOnCommit(true)
+    monitor.pollSingle(new PollContext(PARTITION_1))
+    def history = monitor.getPollHistory(PARTITION_1).entries
+
+    then: "most recent first"
+    history.size() == 2
+    history[0].error == RuntimeException.name
+    history[1].error == null
+    history[1].deltaSize == DELTA_SIZE_PARTITION_1
+    history.every { it.lockOutcome == PollHistory.LockOutcome.DISABLED }
+
+    and:
+    with(monitor.getPollHistory(PARTITION_2).entries[0]) {
+      overThreshold
+      deltaSize == 0
+    }
+  }
+
   def testPollCycleFailedWorks() {
     given:
     Counter counter = registry.counter(
@@ -156,6 +677,16 @@ class CommonPollingMonitorTest extends Specification {
 
     private Map<String, Integer> deltasMap = new HashMap<>()
     private boolean failOnCommit = false
+    private Integer subPartitions = null
+    private boolean streaming = false
+    private boolean preCounting = true
+    private boolean reportingItems = false
+    private Integer deadlineAfterItems = null
+    private CyclicBarrier barrier = null
+    int generatedItems = 0
+    List<Integer> committedPageSizes = []
+    List<PollContext> polledContexts = []
+    List<String> pollingThreads = []
 
     public DefaultPollingMonitor(IgorConfigurationProperties igorProperties,
                                  Registry registry,
@@ -175,6 +706,33 @@ class CommonPollingMonitorTest extends Specification {
 
     @Override
     protected PollingDelta generateDelta(PollContext ctx) {
+      polledContexts << ctx
+      pollingThreads << Thread.currentThread().name
+      if (barrier != null) {
+        barrier.await(5, TimeUnit.SECONDS)
+      }
+      // as if half the items examined made it into the delta
+      ctx.deltaItems.examined((deltasMap.get(ctx.partitionName) ?: 0) * 2)
+      if (deadlineAfterItems != null) {
+        // as if each item took a downstream call, and the deadline passed after some of them
+        List<Integer> items = []
+        for (int item = 1; item <= deltasMap.get(ctx.partitionName); item++) {
+          if (item > deadlineAfterItems) {
+            ctx.setDeadline(0)
+          }
+          if (ctx.isPastDeadline()) {
+            break
+          }
+          items << item
+        }
+        return { -> items } as PollingDelta
+      }
+      if (reportingItems) {
+        deltasMap.get(ctx.partitionName).times {
+          ctx.deltaItems.record(1)
+          generatedItems++
+        }
+      }
       return new PollingDelta() {
         @Override
         public List getItems() {
@@ -184,10 +742,28 @@ class CommonPollingMonitorTest extends Specification {
     }
 
 
+    @Override
+    protected void streamDelta(PollContext ctx, int pageSize, java.util.function.Consumer pages) {
+      if (!streaming) {
+        super.streamDelta(ctx, pageSize, pages)
+        return
+      }
+      polledContexts << ctx
+      def items = deltasMap.get(ctx.partitionName)
+      if (preCounting) {
+        ctx.deltaItems.expect(items)
+      }
+      for (int offset = 0; offset < items; offset += pageSize) {
+        def page = (offset + 1..Math.min(items, offset + pageSize)).toList()
+        pages.accept({ -> page } as PollingDelta)
+      }
+    }
+
     protected void commitDelta(PollingDelta delta, boolean sendEvents) {
       if (failOnCommit) {
         throw new RuntimeException("Can't commit")
       }
+      committedPageSizes << delta.items.size()
       System.out.println("Committing delta")
     }
 
@@ -209,5 +785,34 @@ class CommonPollingMonitorTest extends Specification {
     void setFailOnCommit(boolean failOnCommit) {
       this.failOnCommit = failOnCommit
     }
+
+    void setStreaming(boolean streaming) {
+      this.streaming = streaming
+    }
+
+    void setPreCounting(boolean preCounting) {
+      this.preCounting = preCounting
+    }
+
+    void setReportingItems(boolean reportingItems) {
+      this.reportingItems = reportingItems
+    }
+
+    void setDeadlineAfterItems(Integer deadlineAfterItems) {
+      this.deadlineAfterItems = deadlineAfterItems
+    }
+
+    void setBarrier(CyclicBarrier barrier) {
+      this.barrier = barrier
+    }
+
+    void setSubPartitions(Integer subPartitions) {
+      this.subPartitions = subPartitions
+    }
+
+    @Override
+    protected Integer getPartitionSubPartitionCount(String partition) {
+      return subPartitions
+    }
   }
 }
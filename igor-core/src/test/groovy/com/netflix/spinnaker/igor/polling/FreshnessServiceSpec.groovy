@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.polling
+
+import com.netflix.spectator.api.DefaultRegistry
+import com.netflix.spinnaker.igor.IgorConfigurationProperties
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate
+import spock.lang.Specification
+
+import java.time.Duration
+
+class FreshnessServiceSpec extends Specification {
+
+  def "lags include partitions committed by other replicas"() {
+    given:
+    def redisClientDelegate = Mock(RedisClientDelegate)
+    def service = new FreshnessService(
+      redisClientDelegate, new IgorConfigurationProperties(), new DefaultRegistry(), Duration.ofSeconds(15))
+    def hourAgo = System.currentTimeMillis() - Duration.ofHours(1).toMillis()
+    service.register("jenkinsBuildMonitor")
+
+    when:
+    service.committed("jenkinsBuildMonitor", "master1")
+    service.refresh()
+    def lags = service.getLags("jenkinsBuildMonitor")
+
+    then:
+    1 * redisClientDelegate.withCommandsClient(_ as java.util.function.Consumer)
+    1 * redisClientDelegate.withCommandsClient(_ as java.util.function.Function) >> [
+      "master1": hourAgo.toString(),
+      "master2": hourAgo.toString()
+    ]
+    lags.keySet() == ["master1", "master2"] as Set
+    lags["master1"] < Duration.ofMinutes(1)
+    lags["master2"] >= Duration.ofHours(1)
+  }
+
+  def "a failing redis doesn't fail the commit"() {
+    given:
+    def redisClientDelegate = Mock(RedisClientDelegate) {
+      withCommandsClient(_) >> { throw new RuntimeException("unreachable") }
+    }
+    def service = new FreshnessService(
+      redisClientDelegate, new IgorConfigurationProperties(), new DefaultRegistry(), Duration.ofSeconds(15))
+
+    when:
+    service.committed("jenkinsBuildMonitor", "master1")
+
+    then:
+    noExceptionThrown()
+    service.getLags("jenkinsBuildMonitor").keySet() == ["master1"] as Set
+  }
+
+  def "commits of partitions that are no longer polled are pruned"() {
+    given:
+    def redisClientDelegate = Mock(RedisClientDelegate)
+    def service = new FreshnessService(
+      redisClientDelegate, new IgorConfigurationProperties(), new DefaultRegistry(), Duration.ofSeconds(15))
+    def hourAgo = System.currentTimeMillis() - Duration.ofHours(1).toMillis()
+    service.register("jenkinsBuildMonitor")
+
+    when:
+    service.committed("jenkinsBuildMonitor", "removed")
+    service.retain("jenkinsBuildMonitor", ["master1"])
+    service.refresh()
+    def lags = service.getLags("jenkinsBuildMonitor")
+
+    then:
+    1 * redisClientDelegate.withCommandsClient(_ as java.util.function.Function) >> [
+      "master1": hourAgo.toString(),
+      "removed": hourAgo.toString()
+    ]
+    3 * redisClientDelegate.withCommandsClient(_ as java.util.function.Consumer)
+    lags.keySet() == ["master1"] as Set
+  }
+
+  def "partitions that never commit lag from when they were first seen"() {
+    given:
+    def redisClientDelegate = Mock(RedisClientDelegate)
+    def service = new FreshnessService(
+      redisClientDelegate, new IgorConfigurationProperties(), new DefaultRegistry(), Duration.ofSeconds(15))
+    def hourAgo = System.currentTimeMillis() - Duration.ofHours(1).toMillis()
+    service.register("jenkinsBuildMonitor")
+
+    when: "another replica first saw the partition an hour ago"
+    service.retain("jenkinsBuildMonitor", ["failing"])
+    service.retain("jenkinsBuildMonitor", ["failing"])
+    service.refresh()
+
+    then: "it is seeded once, and keeps the earliest sighting"
+    1 * redisClientDelegate.withCommandsClient(_ as java.util.function.Consumer)
+    1 * redisClientDelegate.withCommandsClient(_ as java.util.function.Function) >> [
+      "failing": hourAgo.toString()
+    ]
+    service.getLags("jenkinsBuildMonitor")["failing"] >= Duration.ofHours(1)
+  }
+}
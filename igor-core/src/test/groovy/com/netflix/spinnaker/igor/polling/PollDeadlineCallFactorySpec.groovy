@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.polling
+
+import okhttp3.Call
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class PollDeadlineCallFactorySpec extends Specification {
+
+  def request = new Request.Builder().url("http://localhost/jobs").build()
+
+  def "calls made by a poll time out at its deadline"() {
+    given:
+    def factory = new PollDeadlineCallFactory(
+      new OkHttpClient.Builder().callTimeout(timeout, TimeUnit.SECONDS).build())
+    def ctx = new PollContext("master1")
+    ctx.setDeadline(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10))
+
+    when:
+    Call call = null
+    ctx.runBound { call = factory.newCall(request) }
+
+    then:
+    TimeUnit.NANOSECONDS.toSeconds(call.timeout().timeoutNanos()) in expected
+
+    where:
+    timeout || expected
+    0       || 9..10
+    5       || 5..5
+    60      || 9..10
+  }
+
+  def "calls made outside of a poll are left untouched"() {
+    given:
+    def factory = new PollDeadlineCallFactory(new OkHttpClient())
+
+    expect:
+    factory.newCall(request).timeout().timeoutNanos() == 0
+    new PollContext("master1").with { ctx ->
+      Call call = null
+      ctx.runBound { call = factory.newCall(request) }
+      call.timeout().timeoutNanos() == 0
+    }
+  }
+}
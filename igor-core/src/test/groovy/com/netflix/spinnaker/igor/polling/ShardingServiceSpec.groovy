@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.polling
+
+import com.netflix.spinnaker.igor.IgorConfigurationProperties
+import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate
+import spock.lang.Specification
+
+import java.time.Duration
+
+class ShardingServiceSpec extends Specification {
+
+  static final List<String> NODES = ["node-a", "node-b", "node-c"]
+  static final List<String> PARTITIONS = (1..300).collect { "master-$it".toString() }
+
+  def "every partition is owned by exactly one live node"() {
+    given:
+    def services = NODES.collect { service(it) }
+    services.each { it.rebuildRing(NODES) }
+
+    expect:
+    PARTITIONS.every { partition ->
+      services.count { it.owns("jenkinsBuildMonitor", partition) } == 1
+    }
+    services.every { service ->
+      PARTITIONS.count { service.owns("jenkinsBuildMonitor", it) } > 50
+    }
+  }
+
+  def "a dead node's slice moves to the remaining nodes"() {
+    given:
+    def a = service("node-a")
+    def b = service("node-b")
+    a.rebuildRing(NODES)
+    def ownedBefore = PARTITIONS.findAll { a.owns("jenkinsBuildMonitor", it) }
+
+    when:
+    a.rebuildRing(["node-a", "node-b"])
+    b.rebuildRing(["node-a", "node-b"])
+
+    then:
+    PARTITIONS.every { a.owns("jenkinsBuildMonitor", it) ^ b.owns("jenkinsBuildMonitor", it) }
+    ownedBefore.every { a.owns("jenkinsBuildMonitor", it) }
+  }
+
+  def "every partition is owned when membership is unknown"() {
+    expect:
+    PARTITIONS.every { service("node-a").owns("jenkinsBuildMonitor", it) }
+  }
+
+  private ShardingService service(String nodeId) {
+    new ShardingService(
+      Mock(RedisClientDelegate),
+      new IgorConfigurationProperties(),
+      new DiscoveryStatusListener(true),
+      nodeId,
+      Duration.ofSeconds(5),
+      Duration.ofSeconds(30),
+      64)
+  }
+}
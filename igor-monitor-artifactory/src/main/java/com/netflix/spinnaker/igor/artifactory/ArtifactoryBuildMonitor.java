@@ -44,6 +44,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -96,10 +97,10 @@ public class ArtifactoryBuildMonitor
   }
 
   @Override
-  public void poll(boolean sendEvents) {
-    for (ArtifactorySearch search : artifactoryProperties.getSearches()) {
-      pollSingle(new PollContext(search.getPartitionName(), !sendEvents));
-    }
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return artifactoryProperties.getSearches().stream()
+        .map(search -> new PollContext(search.getPartitionName(), !sendEvents))
+        .collect(Collectors.toList());
   }
 
   @Override
@@ -122,7 +123,8 @@ public class ArtifactoryBuildMonitor
                   igorProperties.getSpinnaker().getBuild().getLookBackWindowMins();
               long lookbackFromCurrent =
                   System.currentTimeMillis()
-                      - (getPollInterval() * 1000 + (lookBackWindowMins * 60 * 1000));
+                      - (getPollInterval(ctx.partitionName) * 1000
+                          + (lookBackWindowMins * 60 * 1000));
               AqlItem modified = aqlItem("$last", lookBackWindowMins + "minutes");
 
               Long cursor = cache.getLastPollCycleTimestamp(search);
@@ -137,7 +139,9 @@ public class ArtifactoryBuildMonitor
                       .isProcessBuildsOlderThanLookBackWindow()) {
                 modified = aqlItem("$gt", Instant.ofEpochMilli(cursor).toString());
               }
-              cache.setLastPollCycleTimestamp(search, System.currentTimeMillis());
+              if (!ctx.isShadow()) {
+                cache.setLastPollCycleTimestamp(search, System.currentTimeMillis());
+              }
 
               String pathMatch =
                   search.getGroupId() == null ? "" : search.getGroupId().replace('.', '/') + "/";
@@ -205,19 +209,33 @@ public class ArtifactoryBuildMonitor
     }
   }
 
+  @Override
+  protected Integer getPartitionPollInterval(String partition) {
+    return findSearch(partition).map(ArtifactorySearch::getPollInterval).orElse(null);
+  }
+
+  @Override
+  protected Integer getPartitionLockDuration(String partition) {
+    return findSearch(partition).map(ArtifactorySearch::getLockDuration).orElse(null);
+  }
+
+  private Optional<ArtifactorySearch> findSearch(String partition) {
+    return artifactoryProperties.getSearches().stream()
+        .filter(search -> search.getPartitionName().equals(partition))
+        .findAny();
+  }
+
   private void postEvent(Artifact artifact, String name) {
     if (!echoService.isPresent()) {
       log.warn("Cannot send build notification: Echo is not configured");
       registry.counter(missedNotificationId.withTag("monitor", getName())).increment();
     } else {
       if (artifact != null) {
-        AuthenticatedRequest.allowAnonymous(
+        ArtifactoryEvent event = new ArtifactoryEvent(new ArtifactoryEvent.Content(name, artifact));
+        publishEvent(
             () ->
-                Retrofit2SyncCall.execute(
-                    echoService
-                        .get()
-                        .postEvent(
-                            new ArtifactoryEvent(new ArtifactoryEvent.Content(name, artifact)))));
+                AuthenticatedRequest.allowAnonymous(
+                    () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event))));
       }
     }
   }
@@ -39,6 +39,12 @@ public class ArtifactorySearch {
   /** Filter published artifact searches to just this group id. */
   @Nullable private String groupId;
 
+  /** The poll interval (in seconds) of this search, overriding the global one. */
+  @Nullable private Integer pollInterval;
+
+  /** How long (in seconds) this search stays locked while being polled. */
+  @Nullable private Integer lockDuration;
+
   public String getArtifactExtension() {
     return repoType.getArtifactExtension();
   }
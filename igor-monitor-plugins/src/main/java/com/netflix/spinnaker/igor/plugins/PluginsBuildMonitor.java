@@ -32,6 +32,7 @@ import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -112,15 +113,19 @@ public class PluginsBuildMonitor
       log.warn("Cannot send new plugin notification: Echo is not configured");
       registry.counter(missedNotificationId.withTag("monitor", getName())).increment();
     } else if (release != null) {
-      AuthenticatedRequest.allowAnonymous(
-          () -> Retrofit2SyncCall.execute(echoService.get().postEvent(new PluginEvent(release))));
+      publishEvent(
+          () ->
+              AuthenticatedRequest.allowAnonymous(
+                  () ->
+                      Retrofit2SyncCall.execute(
+                          echoService.get().postEvent(new PluginEvent(release)))));
       log.debug("{} event posted", release);
     }
   }
 
   @Override
-  public void poll(boolean sendEvents) {
-    pollSingle(new PollContext("front50"));
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return Collections.singletonList(new PollContext("front50"));
   }
 
   @Override
@@ -97,10 +97,10 @@ public class TravisBuildMonitor
   }
 
   @Override
-  public void poll(boolean sendEvents) {
-    buildServices
-        .getServiceNames(BuildServiceProvider.TRAVIS)
-        .forEach(master -> pollSingle(new PollContext(master, !sendEvents)));
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return buildServices.getServiceNames(BuildServiceProvider.TRAVIS).stream()
+        .map(master -> new PollContext(master, !sendEvents))
+        .collect(Collectors.toList());
   }
 
   @Override
@@ -111,7 +111,10 @@ public class TravisBuildMonitor
 
     List<BuildDelta> builds =
         travisService.getLatestBuilds().stream()
+            .takeWhile(build -> !ctx.isPastDeadline())
+            .peek(build -> ctx.deltaItems.examined(1))
             .flatMap(build -> createBuildDelta(master, travisService, build))
+            .peek(build -> ctx.deltaItems.record(1))
             .collect(Collectors.toList());
 
     log.info(
@@ -272,8 +275,12 @@ public class TravisBuildMonitor
         GenericBuildEvent event = new GenericBuildEvent();
         event.setContent(content);
 
-        AuthenticatedRequest.allowAnonymous(
-            () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event)));
+        publishEvent(
+            master,
+            buildDelta.getBuild().getFinishedAt(),
+            () ->
+                AuthenticatedRequest.allowAnonymous(
+                    () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event))));
       } else {
         log.warn("Cannot send build event notification: Echo is not configured");
         log.info(
@@ -299,6 +306,24 @@ public class TravisBuildMonitor
         .orElse(null);
   }
 
+  @Override
+  protected Integer getPartitionPollInterval(final String partition) {
+    return travisProperties.getMasters().stream()
+        .filter(host -> host.getName().equals(partition))
+        .findAny()
+        .map(TravisProperties.TravisHost::getPollInterval)
+        .orElse(null);
+  }
+
+  @Override
+  protected Integer getPartitionLockDuration(final String partition) {
+    return travisProperties.getMasters().stream()
+        .filter(host -> host.getName().equals(partition))
+        .findAny()
+        .map(TravisProperties.TravisHost::getLockDuration)
+        .orElse(null);
+  }
+
   @Getter
   @Builder
   public static class BuildPollingDelta implements PollingDelta<BuildDelta> {
@@ -20,6 +20,9 @@ package com.netflix.spinnaker.igor.travis.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor;
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter;
+import com.netflix.spinnaker.igor.polling.PollDeadlineCallFactory;
 import com.netflix.spinnaker.igor.service.ArtifactDecorator;
 import com.netflix.spinnaker.igor.service.BuildServices;
 import com.netflix.spinnaker.igor.travis.TravisCache;
@@ -68,7 +71,8 @@ public class TravisConfig {
       ObjectMapper objectMapper,
       Optional<ArtifactDecorator> artifactDecorator,
       CircuitBreakerRegistry circuitBreakerRegistry,
-      OkHttp3ClientConfiguration okHttp3ClientConfig) {
+      OkHttp3ClientConfiguration okHttp3ClientConfig,
+      Optional<DownstreamLimiter> downstreamLimiter) {
     log.info("creating travisMasters");
 
     Map<String, TravisService> travisMasters =
@@ -86,7 +90,8 @@ public class TravisConfig {
                               host.getAddress(),
                               igorConfigurationProperties.getClient().getTimeout(),
                               objectMapper,
-                              okHttp3ClientConfig);
+                              okHttp3ClientConfig,
+                              downstreamLimiter.map(it -> it.interceptor(travisName)));
 
                       boolean useLegacyLogFetching = true;
                       if (host.isUseLogComplete()) {
@@ -132,16 +137,26 @@ public class TravisConfig {
       int timeout,
       ObjectMapper objectMapper,
       OkHttp3ClientConfiguration okHttpClientConfig) {
-    OkHttpClient client =
+    return travisClient(address, timeout, objectMapper, okHttpClientConfig, Optional.empty());
+  }
+
+  public static TravisClient travisClient(
+      String address,
+      int timeout,
+      ObjectMapper objectMapper,
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<Interceptor> limitInterceptor) {
+    OkHttpClient.Builder clientBuilder =
         okHttpClientConfig
             .createForRetrofit2()
             .readTimeout(timeout, TimeUnit.MILLISECONDS)
-            .addInterceptor(new TravisHeader())
-            .build();
+            .addInterceptor(new DownstreamCallEventInterceptor());
+    limitInterceptor.ifPresent(clientBuilder::addInterceptor);
+    OkHttpClient client = clientBuilder.addInterceptor(new TravisHeader()).build();
 
     return new Retrofit.Builder()
         .baseUrl(RetrofitUtils.getBaseUrl(address))
-        .client(client)
+        .callFactory(new PollDeadlineCallFactory(client))
         .addConverterFactory(JacksonConverterFactory.create(objectMapper))
         .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
         .build()
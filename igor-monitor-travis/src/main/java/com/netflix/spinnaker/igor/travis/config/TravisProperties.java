@@ -73,6 +73,8 @@ public class TravisProperties implements BuildServerProperties<TravisProperties.
     private Collection<String> filteredRepositories = Collections.emptySet();
 
     private Integer itemUpperThreshold;
+    private Integer pollInterval;
+    private Integer lockDuration;
     private Permissions.Builder permissions = new Permissions.Builder();
     /**
      * The Travis Builds and Jobs API supports an attribute called <code>log_complete</code> that is
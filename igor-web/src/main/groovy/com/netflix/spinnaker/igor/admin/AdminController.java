@@ -18,11 +18,16 @@ package com.netflix.spinnaker.igor.admin;
 import static java.lang.String.format;
 
 import com.netflix.spinnaker.igor.polling.CommonPollingMonitor;
+import com.netflix.spinnaker.igor.polling.PollContext;
+import com.netflix.spinnaker.igor.polling.PollHistory;
 import com.netflix.spinnaker.igor.polling.PollingMonitor;
 import com.netflix.spinnaker.kork.web.exceptions.NotFoundException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,19 +62,7 @@ public class AdminController {
   @ResponseStatus(HttpStatus.NO_CONTENT)
   public void fastForward(
       @PathVariable String monitorName, @RequestParam(required = false) String partition) {
-    CommonPollingMonitor pollingMonitor =
-        pollingMonitors.stream()
-            .filter(it -> it.getName().equals(monitorName))
-            .findFirst()
-            .orElseThrow(
-                () ->
-                    new NotFoundException(
-                        format(
-                            "PollingMonitor %s was not found, available monitors are: %s",
-                            monitorName,
-                            pollingMonitors.stream()
-                                .map(PollingMonitor::getName)
-                                .collect(Collectors.toList()))));
+    CommonPollingMonitor pollingMonitor = getPollingMonitor(monitorName);
 
     log.warn("Re-indexing {}:{}", monitorName, (partition == null) ? "ALL" : partition);
     if (partition == null) {
@@ -78,4 +71,85 @@ public class AdminController {
       pollingMonitor.pollSingle(pollingMonitor.getPollContext(partition).fastForward());
     }
   }
+
+  /**
+   * Returns the most recent polls of a poller, most recent first, as kept in memory by this
+   * instance: when they started, how long each of their phases took, the size of their delta and
+   * whether they failed.
+   *
+   * @param monitorName The polling monitor name (ex: "DockerMonitor")
+   * @param partition The partition name, its sub-partitions included; if not provided, the
+   *     history of all partitions polled by this instance is returned
+   */
+  @RequestMapping(value = "/pollers/{monitorName}/history", method = RequestMethod.GET)
+  public Map<String, List<PollHistory.Entry>> history(
+      @PathVariable String monitorName, @RequestParam(required = false) String partition) {
+    CommonPollingMonitor pollingMonitor = getPollingMonitor(monitorName);
+
+    Map<String, List<PollHistory.Entry>> history = new TreeMap<>();
+    pollingMonitor
+        .getPollHistories()
+        .forEach(
+            (key, partitionHistory) -> {
+              if (partition == null || partition.equals(PollContext.getPartitionName(key))) {
+                history.put(key, partitionHistory.getEntries());
+              }
+            });
+    return history;
+  }
+
+  /**
+   * Switches shadow polling on or off. Shadow polls generate their delta against the real CI
+   * servers and caches but commit nothing, neither cache writes nor events; their delta size,
+   * timings and allocations are recorded in the poll history and metrics of this instance only.
+   *
+   * @param monitorName The polling monitor name (ex: "DockerMonitor")
+   * @param partition The partition name, if not provided, the whole monitor is switched
+   * @param enabled Whether shadow polling is switched on or off
+   */
+  @RequestMapping(value = "/pollers/{monitorName}/shadow", method = RequestMethod.POST)
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void shadow(
+      @PathVariable String monitorName,
+      @RequestParam(required = false) String partition,
+      @RequestParam(defaultValue = "true") boolean enabled) {
+    CommonPollingMonitor pollingMonitor = getPollingMonitor(monitorName);
+
+    log.warn(
+        "Switching shadow polling {} for {}:{}",
+        enabled ? "on" : "off",
+        monitorName,
+        (partition == null) ? "ALL" : partition);
+    pollingMonitor.setShadow(partition, enabled);
+  }
+
+  /**
+   * Returns whether a poller is shadow polling as a whole, and which of its partitions are.
+   *
+   * @param monitorName The polling monitor name (ex: "DockerMonitor")
+   */
+  @RequestMapping(value = "/pollers/{monitorName}/shadow", method = RequestMethod.GET)
+  public Map<String, Object> shadow(@PathVariable String monitorName) {
+    CommonPollingMonitor pollingMonitor = getPollingMonitor(monitorName);
+
+    Map<String, Object> shadow = new TreeMap<>();
+    shadow.put("monitor", pollingMonitor.isShadow());
+    shadow.put("partitions", new TreeSet<>(pollingMonitor.getShadowPartitions()));
+    return shadow;
+  }
+
+  private CommonPollingMonitor getPollingMonitor(String monitorName) {
+    return pollingMonitors.stream()
+        .filter(it -> it.getName().equals(monitorName))
+        .findFirst()
+        .orElseThrow(
+            () ->
+                new NotFoundException(
+                    format(
+                        "PollingMonitor %s was not found, available monitors are: %s",
+                        monitorName,
+                        pollingMonitors.stream()
+                            .map(PollingMonitor::getName)
+                            .collect(Collectors.toList()))));
+  }
 }
@@ -21,6 +21,7 @@ import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
 import com.netflix.spinnaker.igor.IgorConfigurationProperties
 import com.netflix.spinnaker.igor.docker.model.DockerRegistryAccounts
 import com.netflix.spinnaker.igor.docker.service.ClouddriverService
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor
 import com.netflix.spinnaker.igor.util.RetrofitUtils
 import com.netflix.spinnaker.kork.retrofit.ErrorHandlingExecutorCallAdapterFactory
 import groovy.transform.CompileStatic
@@ -54,7 +55,7 @@ class DockerRegistryConfig {
 
         new Retrofit.Builder()
                 .baseUrl(RetrofitUtils.getBaseUrl(address))
-                .client(okHttpClientConfig.createForRetrofit2().build())
+                .client(okHttpClientConfig.createForRetrofit2().addInterceptor(new DownstreamCallEventInterceptor()).build())
                 .addConverterFactory(JacksonConverterFactory.create(objectMapper))
                 .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
                 .build()
@@ -23,6 +23,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 public class DockerRegistryProperties {
   private boolean enabled;
   private Integer itemUpperThreshold;
+  private Integer pollInterval;
+  private Integer lockDuration;
 
   public boolean isEnabled() {
     return enabled;
@@ -39,4 +41,20 @@ public class DockerRegistryProperties {
   public void setItemUpperThreshold(Integer itemUpperThreshold) {
     this.itemUpperThreshold = itemUpperThreshold;
   }
+
+  public Integer getPollInterval() {
+    return pollInterval;
+  }
+
+  public void setPollInterval(Integer pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+
+  public Integer getLockDuration() {
+    return lockDuration;
+  }
+
+  public void setLockDuration(Integer lockDuration) {
+    this.lockDuration = lockDuration;
+  }
 }
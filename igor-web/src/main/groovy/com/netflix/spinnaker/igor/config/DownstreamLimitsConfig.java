@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.config;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits the calls made to each build system master, separately for the pollers and the API, so
+ * that neither can overload a small master or starve the other.
+ */
+@Configuration
+@ConditionalOnProperty("client.limits.enabled")
+public class DownstreamLimitsConfig {
+
+  @Bean
+  DownstreamLimiter downstreamLimiter(
+      RedisClientDelegate redisClientDelegate,
+      IgorConfigurationProperties igorProperties,
+      Registry registry) {
+    return new DownstreamLimiter(redisClientDelegate, igorProperties, registry);
+  }
+}
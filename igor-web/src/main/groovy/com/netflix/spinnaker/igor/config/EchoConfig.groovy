@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
 import com.netflix.spinnaker.igor.IgorConfigurationProperties
 import com.netflix.spinnaker.igor.history.EchoService
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor
 import com.netflix.spinnaker.igor.util.RetrofitUtils
 import com.netflix.spinnaker.kork.retrofit.ErrorHandlingExecutorCallAdapterFactory
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
@@ -48,7 +49,7 @@ class EchoConfig {
 
         new Retrofit.Builder()
             .baseUrl(RetrofitUtils.getBaseUrl(address))
-            .client(okHttpClientConfig.createForRetrofit2().build())
+            .client(okHttpClientConfig.createForRetrofit2().addInterceptor(new DownstreamCallEventInterceptor()).build())
             .addConverterFactory(JacksonConverterFactory.create(objectMapper))
             .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
             .build()
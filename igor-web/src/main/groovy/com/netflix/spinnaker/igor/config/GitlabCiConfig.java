@@ -21,15 +21,20 @@ import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
 import com.netflix.spinnaker.igor.gitlabci.client.GitlabCiClient;
 import com.netflix.spinnaker.igor.gitlabci.service.GitlabCiService;
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor;
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter;
+import com.netflix.spinnaker.igor.polling.PollDeadlineCallFactory;
 import com.netflix.spinnaker.igor.service.BuildServices;
 import com.netflix.spinnaker.igor.util.RetrofitUtils;
 import com.netflix.spinnaker.kork.retrofit.ErrorHandlingExecutorCallAdapterFactory;
 import java.io.IOException;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.apache.commons.lang3.StringUtils;
@@ -54,7 +59,8 @@ public class GitlabCiConfig {
       final IgorConfigurationProperties igorConfigurationProperties,
       GitlabCiProperties gitlabCiProperties,
       ObjectMapper objectMapper,
-      OkHttp3ClientConfiguration okHttpClientConfig) {
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<DownstreamLimiter> downstreamLimiter) {
     log.info("creating gitlabCiMasters");
     Map<String, GitlabCiService> gitlabCiMasters =
         gitlabCiProperties.getMasters().stream()
@@ -65,7 +71,8 @@ public class GitlabCiConfig {
                         gitlabCiHost.getName(),
                         gitlabCiHost,
                         objectMapper,
-                        okHttpClientConfig))
+                        okHttpClientConfig,
+                        downstreamLimiter))
             .collect(Collectors.toMap(GitlabCiService::getName, Function.identity()));
     buildServices.addServices(gitlabCiMasters);
     return gitlabCiMasters;
@@ -76,14 +83,16 @@ public class GitlabCiConfig {
       String name,
       GitlabCiProperties.GitlabCiHost host,
       ObjectMapper objectMapper,
-      OkHttp3ClientConfiguration okHttpClientConfig) {
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<DownstreamLimiter> downstreamLimiter) {
     return new GitlabCiService(
         gitlabCiClient(
             host.getAddress(),
             host.getPrivateToken(),
             igorConfigurationProperties.getClient().getTimeout(),
             objectMapper,
-            okHttpClientConfig),
+            okHttpClientConfig,
+            downstreamLimiter.map(it -> it.interceptor(name))),
         name,
         host,
         host.getPermissions().build());
@@ -95,15 +104,29 @@ public class GitlabCiConfig {
       int timeout,
       ObjectMapper objectMapper,
       OkHttp3ClientConfiguration okHttpClientConfig) {
+    return gitlabCiClient(
+        address, privateToken, timeout, objectMapper, okHttpClientConfig, Optional.empty());
+  }
+
+  public static GitlabCiClient gitlabCiClient(
+      String address,
+      String privateToken,
+      int timeout,
+      ObjectMapper objectMapper,
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<Interceptor> limitInterceptor) {
+    OkHttpClient.Builder clientBuilder =
+        okHttpClientConfig
+            .createForRetrofit2()
+            .readTimeout(timeout, TimeUnit.MILLISECONDS)
+            .addInterceptor(new DownstreamCallEventInterceptor());
+    limitInterceptor.ifPresent(clientBuilder::addInterceptor);
 
     return new Retrofit.Builder()
         .baseUrl(RetrofitUtils.getBaseUrl(address))
-        .client(
-            okHttpClientConfig
-                .createForRetrofit2()
-                .readTimeout(timeout, TimeUnit.MILLISECONDS)
-                .addInterceptor(new GitlabCiHeaders(privateToken))
-                .build())
+        .callFactory(
+            new PollDeadlineCallFactory(
+                clientBuilder.addInterceptor(new GitlabCiHeaders(privateToken)).build()))
         .addConverterFactory(JacksonConverterFactory.create(objectMapper))
         .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
         .build()
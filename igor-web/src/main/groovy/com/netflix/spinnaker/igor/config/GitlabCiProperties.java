@@ -54,6 +54,8 @@ public class GitlabCiProperties implements BuildServerProperties<GitlabCiPropert
     private boolean limitByOwnership = false;
     private Integer defaultHttpPageLength = 100;
     private Integer itemUpperThreshold = 1000;
+    private Integer pollInterval;
+    private Integer lockDuration;
     private Integer httpRetryMaxAttempts = 5;
     private Integer httpRetryWaitSeconds = 2;
     private Boolean httpRetryExponentialBackoff = false;
@@ -115,6 +117,24 @@ public class GitlabCiProperties implements BuildServerProperties<GitlabCiPropert
       this.itemUpperThreshold = itemUpperThreshold;
     }
 
+    @Override
+    public Integer getPollInterval() {
+      return pollInterval;
+    }
+
+    public void setPollInterval(Integer pollInterval) {
+      this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public Integer getLockDuration() {
+      return lockDuration;
+    }
+
+    public void setLockDuration(Integer lockDuration) {
+      this.lockDuration = lockDuration;
+    }
+
     public Permissions.Builder getPermissions() {
       return permissions;
     }
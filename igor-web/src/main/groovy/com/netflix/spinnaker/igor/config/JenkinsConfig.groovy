@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.DeserializationFeature
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.dataformat.xml.XmlMapper
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule
+import com.netflix.spectator.api.Registry
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
 import com.netflix.spinnaker.fiat.model.resources.Permissions
 import com.netflix.spinnaker.igor.IgorConfigurationProperties
@@ -27,6 +28,10 @@ import com.netflix.spinnaker.igor.config.client.DefaultJenkinsRetrofitRequestInt
 import com.netflix.spinnaker.igor.config.client.JenkinsRetrofitRequestInterceptorProvider
 import com.netflix.spinnaker.igor.jenkins.client.JenkinsClient
 import com.netflix.spinnaker.igor.jenkins.service.JenkinsService
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter
+import com.netflix.spinnaker.igor.limits.RequestHedger
+import com.netflix.spinnaker.igor.polling.PollDeadlineCallFactory
 import com.netflix.spinnaker.igor.service.BuildServices
 import com.netflix.spinnaker.igor.util.RetrofitUtils
 import com.netflix.spinnaker.kork.retrofit.ErrorHandlingExecutorCallAdapterFactory
@@ -79,7 +84,9 @@ class JenkinsConfig {
                                                @Valid JenkinsProperties jenkinsProperties,
                                                OkHttp3ClientConfiguration okHttpClientConfig,
                                                JenkinsRetrofitRequestInterceptorProvider jenkinsRetrofitRequestInterceptorProvider,
-                                               CircuitBreakerRegistry circuitBreakerRegistry) {
+                                               CircuitBreakerRegistry circuitBreakerRegistry,
+                                               Optional<DownstreamLimiter> downstreamLimiter,
+                                               Registry registry) {
         log.info "creating jenkinsMasters"
         Map<String, JenkinsService> jenkinsMasters = jenkinsProperties?.masters?.collectEntries { JenkinsProperties.JenkinsHost host ->
             log.info "bootstrapping ${host.address} as ${host.name}"
@@ -89,11 +96,13 @@ class JenkinsConfig {
                     okHttpClientConfig,
                     host,
                     jenkinsRetrofitRequestInterceptorProvider,
-                    igorConfigurationProperties.client.timeout
+                    igorConfigurationProperties.client.timeout,
+                    downstreamLimiter.orElse(null)
                 ),
                 host.csrf,
                 host.permissions.build(),
-                circuitBreakerRegistry
+                circuitBreakerRegistry,
+                requestHedger(host, registry)
             )]
         }
 
@@ -108,7 +117,26 @@ class JenkinsConfig {
       Permissions permissions,
       CircuitBreakerRegistry circuitBreakerRegistry
     ) {
-        return new JenkinsService(jenkinsHostId, jenkinsClient, csrf, permissions, circuitBreakerRegistry)
+        return jenkinsService(jenkinsHostId, jenkinsClient, csrf, permissions, circuitBreakerRegistry, null)
+    }
+
+    static JenkinsService jenkinsService(
+      String jenkinsHostId,
+      JenkinsClient jenkinsClient,
+      Boolean csrf,
+      Permissions permissions,
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      RequestHedger requestHedger
+    ) {
+        return new JenkinsService(jenkinsHostId, jenkinsClient, csrf, permissions, circuitBreakerRegistry, requestHedger)
+    }
+
+    static RequestHedger requestHedger(JenkinsProperties.JenkinsHost host, Registry registry) {
+        JenkinsProperties.HedgingProperties hedging = host.hedging
+        if (!hedging?.enabled) {
+            return null
+        }
+        return new RequestHedger(host.name, hedging.maxExtraLoadPercent, hedging.minDelayMillis, registry)
     }
 
     static ObjectMapper getObjectMapper() {
@@ -120,10 +148,15 @@ class JenkinsConfig {
   static JenkinsClient jenkinsClient(OkHttp3ClientConfiguration okHttpClientConfig,
                                      JenkinsProperties.JenkinsHost host,
                                      JenkinsRetrofitRequestInterceptorProvider jenkinsRetrofitRequestInterceptorProvider = null,
-                                     int timeout = 30000){
+                                     int timeout = 30000,
+                                     DownstreamLimiter downstreamLimiter = null){
 
         Interceptor requestInterceptor = (jenkinsRetrofitRequestInterceptorProvider != null) ? jenkinsRetrofitRequestInterceptorProvider.provide(host): null
         OkHttpClient.Builder clientBuilder = okHttpClientConfig.createForRetrofit2().readTimeout(timeout, TimeUnit.MILLISECONDS)
+            .addInterceptor(new DownstreamCallEventInterceptor())
+        if (downstreamLimiter != null) {
+          clientBuilder.addInterceptor(downstreamLimiter.interceptor(host.name))
+        }
         if (requestInterceptor != null) {
           clientBuilder.addInterceptor(requestInterceptor)
         }
@@ -179,7 +212,7 @@ class JenkinsConfig {
 
         new Retrofit.Builder()
             .baseUrl(RetrofitUtils.getBaseUrl(host.address))
-            .client(clientBuilder.build())
+            .callFactory(new PollDeadlineCallFactory(clientBuilder.build()))
             .addConverterFactory(JacksonConverterFactory.create(getObjectMapper()))
             .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
             .build()
@@ -57,6 +57,13 @@ class JenkinsProperties implements BuildServerProperties<JenkinsProperties.Jenki
 
         Integer itemUpperThreshold;
 
+        Integer pollInterval
+
+        Integer lockDuration
+
+        // Splits polling of this master's jobs into this many independently locked sub-partitions
+        Integer subPartitions
+
         String trustStore
         String trustStoreType = KeyStore.getDefaultType()
         String trustStorePassword
@@ -70,5 +77,18 @@ class JenkinsProperties implements BuildServerProperties<JenkinsProperties.Jenki
         Boolean ciEnabled = false
 
         Permissions.Builder permissions = new Permissions.Builder()
+
+        // Opt-in hedging of the reads that take longer than this master's observed p95
+        HedgingProperties hedging = new HedgingProperties()
+    }
+
+    static class HedgingProperties {
+        Boolean enabled = false
+
+        // Caps the hedged requests to this share of the requests made to the master
+        Integer maxExtraLoadPercent = 5
+
+        // Never hedges a request before it has been waited for this long
+        Long minDelayMillis = 50
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.config;
+
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.polling.ShardingService;
+import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shards polling monitor partitions across replicas instead of having every replica race for every
+ * partition's lock. Locking should stay enabled as a safety net while membership converges.
+ */
+@Configuration
+@ConditionalOnProperty("sharding.enabled")
+@EnableConfigurationProperties(ShardingConfigProperties.class)
+public class ShardingConfig {
+
+  @Bean
+  ShardingService shardingService(
+      RedisClientDelegate redisClientDelegate,
+      IgorConfigurationProperties igorProperties,
+      DiscoveryStatusListener discoveryStatusListener,
+      ShardingConfigProperties shardingConfigProperties) {
+    return new ShardingService(
+        redisClientDelegate,
+        igorProperties,
+        discoveryStatusListener,
+        ManagementFactory.getRuntimeMXBean().getName(),
+        Duration.ofMillis(shardingConfigProperties.getHeartbeatRateMillis()),
+        Duration.ofMillis(shardingConfigProperties.getLeaseDurationMillis()),
+        shardingConfigProperties.getVirtualNodes());
+  }
+}
@@ -12,6 +12,8 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration
 import com.netflix.spinnaker.igor.IgorConfigurationProperties
 import com.netflix.spinnaker.igor.config.WerckerProperties.WerckerHost
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor
+import com.netflix.spinnaker.igor.polling.PollDeadlineCallFactory
 import com.netflix.spinnaker.igor.service.BuildServices
 import com.netflix.spinnaker.igor.util.RetrofitUtils
 import com.netflix.spinnaker.igor.wercker.WerckerCache
@@ -68,7 +70,9 @@ class WerckerConfig {
 
         return new Retrofit.Builder()
                 .baseUrl(RetrofitUtils.getBaseUrl(host.address))
-                .client(okHttpClientConfig.createForRetrofit2().readTimeout(timeout, TimeUnit.MILLISECONDS).build())
+                .callFactory(new PollDeadlineCallFactory(okHttpClientConfig.createForRetrofit2()
+                    .readTimeout(timeout, TimeUnit.MILLISECONDS)
+                    .addInterceptor(new DownstreamCallEventInterceptor()).build()))
                 .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
                 .addConverterFactory(JacksonConverterFactory.create(objectMapper))
                 .build()
@@ -37,6 +37,10 @@ class WerckerProperties implements BuildServerProperties<WerckerProperties.Werck
 
         Integer itemUpperThreshold
 
+        Integer pollInterval
+
+        Integer lockDuration
+
         Permissions.Builder permissions = new Permissions.Builder()
     }
 }
@@ -41,7 +41,10 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.scheduling.TaskScheduler
 import org.springframework.stereotype.Service
 
+import java.time.Instant
+import java.time.format.DateTimeParseException
 import java.util.concurrent.TimeUnit
+import java.util.function.Consumer
 
 import static net.logstash.logback.argument.StructuredArguments.kv
 
@@ -77,11 +80,11 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
     }
 
     @Override
-    void poll(boolean sendEvents) {
+    protected List<PollContext> getPollContexts(boolean sendEvents) {
         dockerRegistryAccounts.updateAccounts()
-        dockerRegistryAccounts.accounts.forEach({ account ->
-            pollSingle(new PollContext((String) account.name, account, !sendEvents))
-        })
+        dockerRegistryAccounts.accounts.collect { account ->
+            new PollContext((String) account.name, account, !sendEvents)
+        }
     }
 
     @Override
@@ -95,6 +98,22 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
 
     @Override
     DockerPollingDelta generateDelta(PollContext ctx) {
+        List<ImageDelta> delta = []
+        Set<String> cachedImages = null
+        streamDelta(ctx, Integer.MAX_VALUE, { DockerPollingDelta page ->
+            delta.addAll(page.items)
+            cachedImages = page.cachedImages
+        })
+        return new DockerPollingDelta(items: delta, cachedImages: cachedImages)
+    }
+
+    /**
+     * Emits new and updated tags in pages, each committed before the next one is built, so that the delta of a
+     * registry with hundreds of thousands of tags isn't held whole. The registry's images and the cached images are
+     * still fetched whole.
+     */
+    @Override
+    protected void streamDelta(PollContext ctx, int pageSize, Consumer<DockerPollingDelta> pages) {
         String account = ctx.context.name
         Boolean trackDigests = ctx.context.trackDigests ?: false
 
@@ -110,19 +129,40 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
 
         registry.timer("pollingMonitor.docker.retrieveImagesByAccount", [new BasicTag("account", account)])
             .record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS)
-
-        List<ImageDelta> delta = []
-        images.findAll { it != null }.forEach { TaggedImage image ->
-            String imageId = new DockerRegistryV2Key(igorProperties.spinnaker.jedis.prefix, DockerRegistryCache.ID, account, image.repository, image.tag)
+        ctx.deltaItems.examined(images.size())
+        // tags never seen before always make it into the delta, so a registry bound to cross the item threshold (ex:
+        // once its cache is lost) is rejected before any of its pages is committed
+        ctx.deltaItems.expect(images.count { it != null && !cachedImages.contains(imageId(account, it)) } as int)
+
+        int found = 0
+        List<ImageDelta> page = []
+        for (TaggedImage image : images) {
+            if (image == null) {
+                continue
+            }
+            String imageId = imageId(account, image)
             UpdateType updateType = getUpdateType(cachedImages, imageId, image, trackDigests)
             if (updateType.updateCache) {
-                delta.add(new ImageDelta(imageId: imageId, image: image, sendEvent: updateType.sendEvent))
+                page.add(new ImageDelta(imageId: imageId, image: image, sendEvent: updateType.sendEvent))
             }
+            if (page.size() >= pageSize) {
+                found += emitPage(account, page, cachedImages, pages)
+                page = []
+            }
+        }
+        if (page || found == 0) {
+            emitPage(account, page, cachedImages, pages)
         }
+    }
 
-        log.info("Found {} new images for {}. Images: {}", delta.size(), account, delta.collect {[imageId: it.imageId, sendEvent: it.sendEvent] })
+    private String imageId(String account, TaggedImage image) {
+        return new DockerRegistryV2Key(igorProperties.spinnaker.jedis.prefix, DockerRegistryCache.ID, account, image.repository, image.tag)
+    }
 
-        return new DockerPollingDelta(items: delta, cachedImages: cachedImages)
+    private int emitPage(String account, List<ImageDelta> page, Set<String> cachedImages, Consumer<DockerPollingDelta> pages) {
+        log.info("Found {} new images for {}. Images: {}", page.size(), account, page.collect {[imageId: it.imageId, sendEvent: it.sendEvent] })
+        pages.accept(new DockerPollingDelta(items: page, cachedImages: cachedImages))
+        return page.size()
     }
 
     private UpdateType getUpdateType(Set<String> cachedImages, String imageId, TaggedImage image, boolean trackDigests) {
@@ -175,6 +215,18 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
         "dockerTagMonitor"
     }
 
+    /** Images don't have a finish time, so the event latency of a tag is measured from its creation. */
+    private static Instant createdAt(TaggedImage image) {
+        if (!image.date) {
+            return null
+        }
+        try {
+            return Instant.parse(image.date)
+        } catch (DateTimeParseException ignored) {
+            return image.date.isLong() ? Instant.ofEpochMilli(image.date.toLong()) : null
+        }
+    }
+
     void postEvent(Set<String> cachedImagesForAccount, TaggedImage image, String imageId) {
         if (!echoService.isPresent()) {
             log.warn("Cannot send tagged image notification: Echo is not enabled")
@@ -190,14 +242,16 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
         GenericArtifact dockerArtifact = new GenericArtifact("docker", image.repository, image.tag, "${image.registry}/${image.repository}:${image.tag}")
         dockerArtifact.metadata = [registry: image.registry]
 
-        AuthenticatedRequest.allowAnonymous {
-          Retrofit2SyncCall.execute(echoService.get().postEvent(new DockerEvent(content: new DockerEvent.Content(
-            registry: image.registry,
-            repository: image.repository,
-            tag: image.tag,
-            digest: image.digest,
-            account: image.account,
-          ), artifact: dockerArtifact)))
+        publishEvent(image.account, createdAt(image)) {
+          AuthenticatedRequest.allowAnonymous {
+            Retrofit2SyncCall.execute(echoService.get().postEvent(new DockerEvent(content: new DockerEvent.Content(
+              registry: image.registry,
+              repository: image.repository,
+              tag: image.tag,
+              digest: image.digest,
+              account: image.account,
+            ), artifact: dockerArtifact)))
+          }
         }
 
         if (keelService.isPresent()) {
@@ -241,6 +295,27 @@ class DockerMonitor extends CommonPollingMonitor<ImageDelta, DockerPollingDelta>
         return upperThreshold
     }
 
+    @Override
+    protected Integer getPartitionPollInterval(String partition) {
+        return dockerRegistryAccounts.accounts.find { it.name == partition }?.pollInterval
+    }
+
+    @Override
+    protected Integer getPartitionLockDuration(String partition) {
+        return dockerRegistryAccounts.accounts.find { it.name == partition }?.lockDuration
+    }
+
+    // the docker-registry settings apply to every account, so per-partition overrides win over them
+    @Override
+    protected Integer getMonitorPollInterval() {
+        return dockerRegistryProperties.pollInterval
+    }
+
+    @Override
+    protected Integer getMonitorLockDuration() {
+        return dockerRegistryProperties.lockDuration
+    }
+
     private static class DockerPollingDelta implements PollingDelta<ImageDelta> {
         List<ImageDelta> items
         Set<String> cachedImages
@@ -18,6 +18,7 @@ package com.netflix.spinnaker.igor.docker;
 import static java.lang.String.format;
 
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.jfr.RedisCommandEvent;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 import java.util.HashSet;
 import java.util.Map;
@@ -41,7 +42,7 @@ public class DockerRegistryCache {
   public DockerRegistryCache(
       RedisClientDelegate redisClientDelegate,
       IgorConfigurationProperties igorConfigurationProperties) {
-    this.redisClientDelegate = redisClientDelegate;
+    this.redisClientDelegate = RedisCommandEvent.traced("dockerRegistryCache", redisClientDelegate);
     this.igorConfigurationProperties = igorConfigurationProperties;
   }
 
@@ -43,7 +43,9 @@ import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -93,10 +95,10 @@ public class GitlabCiBuildMonitor
   }
 
   @Override
-  public void poll(boolean sendEvents) {
-    buildServices.getServiceNames(BuildServiceProvider.GITLAB_CI).stream()
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return buildServices.getServiceNames(BuildServiceProvider.GITLAB_CI).stream()
         .map(it -> new PollContext(it, !sendEvents))
-        .forEach(this::pollSingle);
+        .collect(Collectors.toList());
   }
 
   @Override
@@ -116,31 +118,42 @@ public class GitlabCiBuildMonitor
         projects.size(),
         kv("master", master));
 
-    List<BuildDelta> delta = new ArrayList<>();
+    // the common pool's threads aren't bound to the poll, so each project is bound to it for its
+    // calls to be limited as the poller's rather than the API's
+    List<BuildDelta> delta = Collections.synchronizedList(new ArrayList<>());
     projects.parallelStream()
         .forEach(
-            project -> {
-              // Gitlab Pipeline API is broken up by project, check for new pipelines for each
-              // project individually
-              List<Pipeline> pipelines =
-                  filterOldPipelines(
-                      gitlabCiService.getPipelines(project, MAX_NUMBER_OF_PIPELINES));
-              for (Pipeline pipeline : pipelines) {
-                if (pipeline.getStatus() != PipelineStatus.success) {
-                  // Ignore pipelines that are running, pending, failed, etc.
-                  continue;
-                }
-                String pipelineIdCacheKey = String.valueOf(project.getId());
-                long cachedBuildId = buildCache.getLastBuild(master, pipelineIdCacheKey, false);
-                // GitLab CI pipelineIds increment; Determine if it is new using the ID
-                if (pipeline.getId() > cachedBuildId) {
-                  updatedBuilds.incrementAndGet();
-                  boolean isPipelineRunning = GitlabCiResultConverter.running(pipeline.getStatus());
-                  delta.add(
-                      new BuildDelta(pipelineIdCacheKey, project, pipeline, isPipelineRunning));
-                }
-              }
-            });
+            project ->
+                ctx.runBound(
+                    () -> {
+                      if (ctx.isPastDeadline()) {
+                        return;
+                      }
+                      // Gitlab Pipeline API is broken up by project, check for new pipelines for
+                      // each project individually
+                      List<Pipeline> pipelines =
+                          filterOldPipelines(
+                              gitlabCiService.getPipelines(project, MAX_NUMBER_OF_PIPELINES));
+                      ctx.deltaItems.examined(pipelines.size());
+                      for (Pipeline pipeline : pipelines) {
+                        if (pipeline.getStatus() != PipelineStatus.success) {
+                          // Ignore pipelines that are running, pending, failed, etc.
+                          continue;
+                        }
+                        String pipelineIdCacheKey = String.valueOf(project.getId());
+                        long cachedBuildId =
+                            buildCache.getLastBuild(master, pipelineIdCacheKey, false);
+                        // GitLab CI pipelineIds increment; Determine if it is new using the ID
+                        if (pipeline.getId() > cachedBuildId) {
+                          updatedBuilds.incrementAndGet();
+                          boolean isPipelineRunning =
+                              GitlabCiResultConverter.running(pipeline.getStatus());
+                          delta.add(
+                              new BuildDelta(
+                                  pipelineIdCacheKey, project, pipeline, isPipelineRunning));
+                        }
+                      }
+                    }));
 
     if (!delta.isEmpty()) {
       log.info(
@@ -228,8 +241,14 @@ public class GitlabCiBuildMonitor
 
     GenericBuildEvent event = new GenericBuildEvent();
     event.setContent(content);
-    AuthenticatedRequest.allowAnonymous(
-        () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event)));
+    Instant finishedAt =
+        pipeline.getFinishedAt() != null ? pipeline.getFinishedAt().toInstant() : null;
+    publishEvent(
+        master,
+        finishedAt,
+        () ->
+            AuthenticatedRequest.allowAnonymous(
+                () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event))));
   }
 
   @Override
@@ -243,6 +262,24 @@ public class GitlabCiBuildMonitor
     return null;
   }
 
+  @Override
+  protected Integer getPartitionPollInterval(String partition) {
+    return gitlabCiProperties.getMasters().stream()
+        .filter(host -> partition.equals(host.getName()))
+        .findAny()
+        .map(GitlabCiProperties.GitlabCiHost::getPollInterval)
+        .orElse(null);
+  }
+
+  @Override
+  protected Integer getPartitionLockDuration(String partition) {
+    return gitlabCiProperties.getMasters().stream()
+        .filter(host -> partition.equals(host.getName()))
+        .findAny()
+        .map(GitlabCiProperties.GitlabCiHost::getLockDuration)
+        .orElse(null);
+  }
+
   static class BuildPollingDelta implements PollingDelta<BuildDelta> {
     private final List<BuildDelta> items;
     private final String master;
@@ -32,6 +32,9 @@ public class Pipeline {
   @JsonProperty("created_at")
   private Date createdAt;
 
+  @JsonProperty("finished_at")
+  private Date finishedAt;
+
   public Date getCreatedAt() {
     return createdAt;
   }
@@ -40,6 +43,14 @@ public class Pipeline {
     this.createdAt = createdAt;
   }
 
+  public Date getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Date finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+
   public int getId() {
     return id;
   }
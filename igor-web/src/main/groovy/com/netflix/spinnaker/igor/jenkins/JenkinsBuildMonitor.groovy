@@ -29,6 +29,8 @@ import com.netflix.spinnaker.igor.jenkins.service.JenkinsService
 import com.netflix.spinnaker.igor.model.BuildServiceProvider
 import com.netflix.spinnaker.igor.polling.CommonPollingMonitor
 import com.netflix.spinnaker.igor.polling.DeltaItem
+import com.netflix.spinnaker.igor.polling.DeltaItemCounter
+import com.netflix.spinnaker.igor.polling.ItemUpperThresholdExceededException
 import com.netflix.spinnaker.igor.polling.LockService
 import com.netflix.spinnaker.igor.polling.PollContext
 import com.netflix.spinnaker.igor.polling.PollingDelta
@@ -44,6 +46,8 @@ import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.scheduling.TaskScheduler
 import org.springframework.stereotype.Service
+
+import java.time.Instant
 import java.util.stream.Collectors
 
 import static net.logstash.logback.argument.StructuredArguments.kv
@@ -55,6 +59,9 @@ import static net.logstash.logback.argument.StructuredArguments.kv
 @ConditionalOnProperty('jenkins.enabled')
 class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta> {
 
+    /** Jobs whose markers and cursors are committed together once their events are posted. */
+    private static final int COMMIT_BATCH_SIZE = 25
+
     private final JenkinsCache cache
     private final BuildServices buildServices
     private final boolean pollingEnabled
@@ -92,10 +99,8 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
     }
 
     @Override
-    void poll(boolean sendEvents) {
-        buildServices.getServiceNames(BuildServiceProvider.JENKINS).stream().forEach(
-            { master -> pollSingle(new PollContext(master, !sendEvents)) }
-        )
+    protected List<PollContext> getPollContexts(boolean sendEvents) {
+        buildServices.getServiceNames(BuildServiceProvider.JENKINS).collect { master -> new PollContext(master, !sendEvents) }
     }
 
     /**
@@ -107,23 +112,30 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
         String master = ctx.partitionName
         log.trace("Checking for new builds for $master")
 
-        final List<JobDelta> delta = []
+        final List<JobDelta> delta = Collections.synchronizedList(new ArrayList<JobDelta>())
         registry.timer("pollingMonitor.jenkins.retrieveProjects", [new BasicTag("partition", master)]).record {
             JenkinsService jenkinsService = buildServices.getService(master) as JenkinsService
-            List<Project> jobs = jenkinsService.getProjects()?.getList() ?:[]
-            jobs.forEach( { job -> processBuildsOfProject(jenkinsService, master, job, delta)})
+            List<Project> jobs = (jenkinsService.getProjects()?.getList() ?: []).findAll { ctx.includes(it.name) }
+            // one read for the cursors of every job, rather than one per job; shadow polls write
+            // nothing, so they leave the cursors of a master not migrated yet as they are
+            Map<String, Long> cursors = cache.getLastPollCycleTimestamps(master, !ctx.isShadow()) ?: [:]
+            forEachInPartition(ctx, jobs, { Project job -> processBuildsOfProject(jenkinsService, master, job, cursors, delta, ctx) })
         }
         return new JobPollingDelta(master: master, items: delta)
     }
 
-    private void processBuildsOfProject(JenkinsService jenkinsService, String master, Project job, List<JobDelta> delta) {
+    private void processBuildsOfProject(JenkinsService jenkinsService, String master, Project job, Map<String, Long> cursors,
+                                        List<JobDelta> delta, PollContext ctx) {
+        DeltaItemCounter deltaItems = ctx.deltaItems
+        deltaItems.examined(1)
         if (!job.lastBuild) {
             log.trace("[{}:{}] has no builds skipping...", kv("master", master), kv("job", job.name))
             return
         }
 
         try {
-            Long cursor = cache.getLastPollCycleTimestamp(master, job.name)
+            // cursors are all migrated into the hash before it is read, so a job missing from it is new
+            Long cursor = cursors[job.name]
             Long lastBuildStamp = job.lastBuild.timestamp as Long
             Date upperBound = new Date(lastBuildStamp)
             if (cursor == lastBuildStamp) {
@@ -132,7 +144,9 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
             }
 
             if (!cursor && !igorProperties.spinnaker.build.handleFirstBuilds) {
-                cache.setLastPollCycleTimestamp(master, job.name, lastBuildStamp)
+                if (!ctx.isShadow()) {
+                    cache.setLastPollCycleTimestamp(master, job.name, lastBuildStamp)
+                }
                 return
             }
 
@@ -155,7 +169,10 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
                 completedBuilds: completedBuilds,
                 runningBuilds: currentlyBuilding
             ))
+            deltaItems.record(1)
 
+        } catch (ItemUpperThresholdExceededException e) {
+            throw e
         } catch (e) {
             log.error("Error processing builds for [{}:{}]", kv("master", master), kv("job", job.name), e)
             if (e instanceof SpinnakerServerException) {
@@ -193,30 +210,54 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
     @Override
     protected void commitDelta(JobPollingDelta delta, boolean sendEvents) {
         String master = delta.master
+        Map<String, Long> cursors = delta.items.collectEntries { [(it.name): it.cursor] }
+        // the markers of the whole delta are read in one pipeline; they are committed with the
+        // cursors every COMMIT_BATCH_SIZE jobs, right after those jobs' events are posted
+        Map<String, Set<Integer>> eventsPosted = cache.getEventsPosted(master, cursors) ?: [:]
+        Map<String, List<Integer>> newlyPosted = [:]
+        Map<String, Long> advancedCursors = [:]
+        Set<String> pending = [] as Set
+        Closure flush = {
+            if (newlyPosted || advancedCursors) {
+                cache.commitJobs(master, cursors, newlyPosted, advancedCursors)
+            }
+            newlyPosted.clear()
+            advancedCursors.clear()
+            pending.clear()
+        }
+
+        try {
+            delta.items.each { job ->
+                // post events for finished builds
+                job.completedBuilds.forEach { build ->
+                    if (!eventsPosted[job.name]?.contains(build.number)) {
+                        if (sendEvents) {
+                            postEvent(new Project(name: job.name, lastBuild: build), master)
+                            log.debug("[${master}:${job.name}]:${build.number} event posted")
+                        } else {
+                          registry.counter(missedNotificationId.withTags("monitor", getName(), "reason", "fastForward")).increment()
+                        }
 
-        delta.items.stream().forEach { job ->
-            // post events for finished builds
-            job.completedBuilds.forEach { build ->
-                Boolean eventPosted = cache.getEventPosted(master, job.name, job.cursor, build.number)
-                if (!eventPosted) {
-                    if (sendEvents) {
-                        postEvent(new Project(name: job.name, lastBuild: build), master)
-                        log.debug("[${master}:${job.name}]:${build.number} event posted")
-                    } else {
-                      registry.counter(missedNotificationId.withTags("monitor", getName(), "reason", "fastForward")).increment()
+                        newlyPosted.computeIfAbsent(job.name, { [] }).add(build.number)
+                        pending.add(job.name)
                     }
+                }
 
-                    cache.setEventPosted(master, job.name, job.cursor, build.number)
+                // advance cursor when all builds have completed in the interval
+                if (job.runningBuilds.isEmpty()) {
+                    log.info("[{}:{}] has no other builds between [${job.lowerBound} - ${job.upperBound}], " +
+                        "advancing cursor to ${job.lastBuildStamp}", kv("master", master), kv("job", job.name))
+                    advancedCursors[job.name] = job.lastBuildStamp
+                    pending.add(job.name)
                 }
-            }
 
-            // advance cursor when all builds have completed in the interval
-            if (job.runningBuilds.isEmpty()) {
-                log.info("[{}:{}] has no other builds between [${job.lowerBound} - ${job.upperBound}], " +
-                    "advancing cursor to ${job.lastBuildStamp}", kv("master", master), kv("job", job.name))
-                cache.pruneOldMarkers(master, job.name, job.cursor)
-                cache.setLastPollCycleTimestamp(master, job.name, job.lastBuildStamp)
+                if (pending.size() >= COMMIT_BATCH_SIZE) {
+                    flush()
+                }
             }
+        } finally {
+            // builds posted before a failure are still marked, so they are not posted again
+            flush()
         }
     }
 
@@ -225,15 +266,39 @@ class JenkinsBuildMonitor extends CommonPollingMonitor<JobDelta, JobPollingDelta
         return jenkinsProperties.masters.find { partition == it.name }?.itemUpperThreshold
     }
 
+    @Override
+    protected Integer getPartitionSubPartitionCount(String partition) {
+        return jenkinsProperties.masters.find { partition == it.name }?.subPartitions
+    }
+
+    @Override
+    protected Integer getPartitionPollInterval(String partition) {
+        return jenkinsProperties.masters.find { partition == it.name }?.pollInterval
+    }
+
+    @Override
+    protected Integer getPartitionLockDuration(String partition) {
+        return jenkinsProperties.masters.find { partition == it.name }?.lockDuration
+    }
+
     private void postEvent(Project project, String master) {
         if (!echoService.isPresent()) {
             log.warn("Cannot send build notification: Echo is not configured")
             registry.counter(missedNotificationId.withTag("monitor", getName())).increment()
             return
         }
-        AuthenticatedRequest.allowAnonymous {
-            Retrofit2SyncCall.execute(echoService.get().postEvent(new BuildEvent(content: new BuildContent(project: project, master: master))))
+        publishEvent(master, finishedAt(project.lastBuild)) {
+            AuthenticatedRequest.allowAnonymous {
+                Retrofit2SyncCall.execute(echoService.get().postEvent(new BuildEvent(content: new BuildContent(project: project, master: master))))
+            }
+        }
+    }
+
+    private static Instant finishedAt(Build build) {
+        if (!build?.timestamp?.isLong()) {
+            return null
         }
+        return Instant.ofEpochMilli(build.timestamp.toLong() + (build.duration ?: 0L))
     }
 
     private static class JobPollingDelta implements PollingDelta<JobDelta> {
@@ -15,28 +15,76 @@
  */
 package com.netflix.spinnaker.igor.jenkins;
 
+import com.google.common.collect.Lists;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.build.TypeaheadIndex;
+import com.netflix.spinnaker.igor.jfr.RedisCommandEvent;
+import com.netflix.spinnaker.igor.util.RedisScript;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
 import java.util.*;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
 
 /** Shared cache of build details for jenkins */
 @Service
 public class JenkinsCache {
 
   private static final String POLL_STAMP = "lastPollCycleTimestamp";
+  private static final String CURSORS = "jenkinsCursors";
+
+  /** Cursor hashes with more jobs than this are read with HSCAN rather than HGETALL. */
+  static final int CURSORS_SCAN_THRESHOLD = 10_000;
+
+  /** Jobs committed by a single run of the commit script, so that it doesn't block Redis long. */
+  static final int COMMIT_BATCH_SIZE = 500;
+
+  /**
+   * Commits a batch of jobs. KEYS holds the key and marker key of each job, then the cursor hash;
+   * ARGV holds for each job its name, the cursor it advances to (empty if it doesn't), the number
+   * of builds posted and their numbers. Returns the jobs that weren't in the cursor hash yet.
+   */
+  private static final RedisScript COMMIT_SCRIPT =
+      new RedisScript(
+          "local cursors = KEYS[#KEYS]\n"
+              + "local added = {}\n"
+              + "local a = 1\n"
+              + "for k = 1, #KEYS - 1, 2 do\n"
+              + "  local job = ARGV[a]\n"
+              + "  local cursor = ARGV[a + 1]\n"
+              + "  local posted = tonumber(ARGV[a + 2])\n"
+              + "  for i = a + 3, a + 2 + posted do\n"
+              + "    redis.call('HSET', KEYS[k + 1], ARGV[i], 'POSTED')\n"
+              + "  end\n"
+              + "  a = a + 3 + posted\n"
+              + "  if cursor ~= '' then\n"
+              + "    redis.call('DEL', KEYS[k], KEYS[k + 1])\n"
+              + "    redis.call('HSET', KEYS[k], '"
+              + POLL_STAMP
+              + "', cursor)\n"
+              + "    if redis.call('HSET', cursors, job, cursor) == 1 then\n"
+              + "      added[#added + 1] = job\n"
+              + "    end\n"
+              + "  end\n"
+              + "end\n"
+              + "return added\n");
 
   private final RedisClientDelegate redisClientDelegate;
   private final IgorConfigurationProperties igorConfigurationProperties;
+  private final TypeaheadIndex typeaheadIndex;
 
   @Autowired
   public JenkinsCache(
       RedisClientDelegate redisClientDelegate,
       IgorConfigurationProperties igorConfigurationProperties) {
-    this.redisClientDelegate = redisClientDelegate;
+    this.redisClientDelegate = RedisCommandEvent.traced("jenkinsCache", redisClientDelegate);
     this.igorConfigurationProperties = igorConfigurationProperties;
+    this.typeaheadIndex =
+        new TypeaheadIndex(this.redisClientDelegate, () -> prefix() + ":typeahead:jenkins");
   }
 
   public List<String> getJobNames(String master) {
@@ -54,17 +102,37 @@ public class JenkinsCache {
   }
 
   public List<String> getTypeaheadResults(String search) {
-    List<String> results = new ArrayList<>();
+    return getTypeaheadResults(search, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the {@code master:job} entries whose job name contains {@code search}, ignoring case.
+   *
+   * @param master only returns the jobs of this master, if set
+   * @param limit returns at most this many entries
+   */
+  public List<String> getTypeaheadResults(String search, @Nullable String master, int limit) {
+    if (!typeaheadIndex.isBackfilled()) {
+      backfillTypeaheadIndex();
+    }
+    return typeaheadIndex.search(search, master, limit);
+  }
+
+  /** Indexes the jobs cached before the typeahead index existed. */
+  private void backfillTypeaheadIndex() {
     redisClientDelegate.withKeyScan(
-        prefix() + ":*:*" + search.toUpperCase() + "*:*",
+        prefix() + ":*:*:*",
         1000,
-        page ->
-            results.addAll(
-                page.getResults().stream()
-                    .map(JenkinsCache::extractTypeaheadResult)
-                    .collect(Collectors.toList())));
-    results.sort(Comparator.naturalOrder());
-    return results;
+        page -> {
+          for (String key : page.getResults()) {
+            // other caches share the prefix, a job's key is prefix:master:JOB:job
+            String[] parts = key.split(":");
+            if (parts.length == 4 && parts[2].equals(parts[3].toUpperCase())) {
+              typeaheadIndex.add(parts[1], parts[3], Long.MAX_VALUE);
+            }
+          }
+        });
+    typeaheadIndex.backfilled();
   }
 
   public Map<String, Object> getLastBuild(String master, String job) {
@@ -96,6 +164,7 @@ public class JenkinsCache {
           c.hset(key, "lastBuildLabel", Integer.toString(lastBuild));
           c.hset(key, "lastBuildBuilding", Boolean.toString(building));
         });
+    typeaheadIndex.add(master, job, Long.MAX_VALUE);
   }
 
   public void setLastPollCycleTimestamp(String master, String job, Long timestamp) {
@@ -103,36 +172,236 @@ public class JenkinsCache {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.hset(key, POLL_STAMP, Long.toString(timestamp));
+          c.hset(makeCursorsKey(master), job, Long.toString(timestamp));
         });
+    typeaheadIndex.add(master, job, Long.MAX_VALUE);
   }
 
   public Long getLastPollCycleTimestamp(String master, String job) {
     return redisClientDelegate.withCommandsClient(
         c -> {
-          String ts = c.hget(makeKey(master, job), POLL_STAMP);
+          String ts = c.hget(makeCursorsKey(master), job);
+          if (ts == null) {
+            // written before the cursors of a master were kept together
+            ts = c.hget(makeKey(master, job), POLL_STAMP);
+          }
           return ts == null ? null : Long.parseLong(ts);
         });
   }
 
+  /**
+   * Returns the cursor of every job of a master, from the hash they are kept together in. The
+   * cursors written before that hash existed are copied into it the first time it is read.
+   */
+  public Map<String, Long> getLastPollCycleTimestamps(String master) {
+    return getLastPollCycleTimestamps(master, true);
+  }
+
+  /**
+   * Returns the cursor of every job of a master, from the hash they are kept together in.
+   *
+   * @param migrate whether to copy the cursors written before that hash existed into it, if they
+   *     haven't been yet; read-only callers (ex: shadow polls) only see the cursors already in it
+   */
+  public Map<String, Long> getLastPollCycleTimestamps(String master, boolean migrate) {
+    if (migrate && !isCursorsMigrated(master)) {
+      migrateCursors(master);
+    }
+    String key = makeCursorsKey(master);
+    Map<String, Long> cursors = new HashMap<>();
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          if (c.hlen(key) <= CURSORS_SCAN_THRESHOLD) {
+            c.hgetAll(key).forEach((job, ts) -> cursors.put(job, Long.parseLong(ts)));
+            return;
+          }
+          ScanParams params = new ScanParams().count(1000);
+          String cursor = ScanParams.SCAN_POINTER_START;
+          do {
+            ScanResult<Map.Entry<String, String>> page = c.hscan(key, cursor, params);
+            page.getResult().forEach(it -> cursors.put(it.getKey(), Long.parseLong(it.getValue())));
+            cursor = page.getCursor();
+          } while (!ScanParams.SCAN_POINTER_START.equals(cursor));
+        });
+    return cursors;
+  }
+
+  /**
+   * Advances the cursors of a master's jobs, pruning the markers of the builds posted under their
+   * previous cursors, in a single pipeline.
+   *
+   * @param cursors the cursor each job is advanced to
+   * @param previousCursors the cursor each job is advanced from
+   */
+  public void advanceCursors(
+      String master, Map<String, Long> cursors, Map<String, Long> previousCursors) {
+    List<String> newJobs = new ArrayList<>();
+    redisClientDelegate.withPipeline(
+        p -> {
+          Map<String, Response<Long>> added = new HashMap<>();
+          cursors.forEach(
+              (job, timestamp) -> {
+                String key = makeKey(master, job);
+                p.del(key);
+                if (previousCursors.get(job) != null) {
+                  p.del(makeMarkersKey(master, job, previousCursors.get(job)));
+                }
+                p.hset(key, POLL_STAMP, Long.toString(timestamp));
+                added.put(job, p.hset(makeCursorsKey(master), job, Long.toString(timestamp)));
+              });
+          redisClientDelegate.syncPipeline(p);
+          added.forEach(
+              (job, response) -> {
+                if (response.get() > 0) {
+                  newJobs.add(job);
+                }
+              });
+        });
+    newJobs.forEach(job -> typeaheadIndex.add(master, job, Long.MAX_VALUE));
+  }
+
+  /**
+   * Commits the jobs of a master: marks the builds posted under each job's current cursor, then
+   * advances the cursors of the jobs done with them, pruning their markers. Each batch of jobs is
+   * applied atomically by a single script, so a failure can't leave a job half committed. Falls
+   * back to {@link #setEventsPosted} and {@link #advanceCursors} where scripts aren't supported.
+   *
+   * @param cursors the current cursor of each job
+   * @param buildNumbers the builds posted for each job
+   * @param advancedCursors the cursor each job done with its builds is advanced to
+   */
+  public void commitJobs(
+      String master,
+      Map<String, Long> cursors,
+      Map<String, List<Integer>> buildNumbers,
+      Map<String, Long> advancedCursors) {
+    if (!redisClientDelegate.supportsScripting()) {
+      if (!buildNumbers.isEmpty()) {
+        setEventsPosted(master, cursors, buildNumbers);
+      }
+      if (!advancedCursors.isEmpty()) {
+        advanceCursors(master, advancedCursors, cursors);
+      }
+      return;
+    }
+
+    Set<String> jobs = new LinkedHashSet<>(buildNumbers.keySet());
+    jobs.addAll(advancedCursors.keySet());
+    List<String> newJobs = new ArrayList<>();
+    for (List<String> batch : Lists.partition(new ArrayList<>(jobs), COMMIT_BATCH_SIZE)) {
+      List<String> keys = new ArrayList<>();
+      List<String> args = new ArrayList<>();
+      for (String job : batch) {
+        List<Integer> builds = buildNumbers.getOrDefault(job, Collections.emptyList());
+        Long advancedTo = advancedCursors.get(job);
+        keys.add(makeKey(master, job));
+        keys.add(makeMarkersKey(master, job, cursors.get(job)));
+        args.add(job);
+        args.add(advancedTo == null ? "" : Long.toString(advancedTo));
+        args.add(Integer.toString(builds.size()));
+        builds.forEach(build -> args.add(Integer.toString(build)));
+      }
+      keys.add(makeCursorsKey(master));
+      Object added = COMMIT_SCRIPT.eval(redisClientDelegate, keys, args);
+      ((List<?>) added).forEach(job -> newJobs.add((String) job));
+    }
+    newJobs.forEach(job -> typeaheadIndex.add(master, job, Long.MAX_VALUE));
+  }
+
+  private boolean isCursorsMigrated(String master) {
+    return redisClientDelegate.withCommandsClient(c -> c.sismember(makeCursorsKey(), master));
+  }
+
+  /** Copies the cursors kept in each job's key into the master's cursor hash. */
+  private void migrateCursors(String master) {
+    redisClientDelegate.withKeyScan(
+        prefix() + ":" + master + ":*",
+        1000,
+        page ->
+            redisClientDelegate.withCommandsClient(
+                c -> {
+                  for (String key : page.getResults()) {
+                    String[] parts = key.split(":");
+                    if (parts.length != 4 || !parts[2].equals(parts[3].toUpperCase())) {
+                      continue;
+                    }
+                    String ts = c.hget(key, POLL_STAMP);
+                    if (ts != null) {
+                      // a cursor already in the hash is the most recent one
+                      c.hsetnx(makeCursorsKey(master), parts[3], ts);
+                    }
+                  }
+                }));
+    redisClientDelegate.withCommandsClient(
+        c -> {
+          c.sadd(makeCursorsKey(), master);
+        });
+  }
+
   public Boolean getEventPosted(String master, String job, Long cursor, Integer buildNumber) {
-    String key = makeKey(master, job) + ":" + POLL_STAMP + ":" + cursor;
+    String key = makeMarkersKey(master, job, cursor);
     return redisClientDelegate.withCommandsClient(
         c -> c.hget(key, Integer.toString(buildNumber)) != null);
   }
 
   public void setEventPosted(String master, String job, Long cursor, Integer buildNumber) {
-    String key = makeKey(master, job) + ":" + POLL_STAMP + ":" + cursor;
+    String key = makeMarkersKey(master, job, cursor);
     redisClientDelegate.withCommandsClient(
         c -> {
           c.hset(key, Integer.toString(buildNumber), "POSTED");
         });
   }
 
+  /**
+   * Returns the builds already posted for each job under its current cursor, read in a single
+   * pipeline.
+   *
+   * @param cursors the current cursor of each job
+   */
+  public Map<String, Set<Integer>> getEventsPosted(String master, Map<String, Long> cursors) {
+    Map<String, Set<Integer>> posted = new HashMap<>();
+    redisClientDelegate.withPipeline(
+        p -> {
+          Map<String, Response<Set<String>>> markers = new HashMap<>();
+          cursors.forEach(
+              (job, cursor) -> markers.put(job, p.hkeys(makeMarkersKey(master, job, cursor))));
+          redisClientDelegate.syncPipeline(p);
+          markers.forEach(
+              (job, response) ->
+                  posted.put(
+                      job,
+                      response.get().stream().map(Integer::valueOf).collect(Collectors.toSet())));
+        });
+    return posted;
+  }
+
+  /**
+   * Marks builds of a master's jobs as posted under their current cursors, in a single pipeline.
+   *
+   * @param cursors the current cursor of each job
+   * @param buildNumbers the builds posted for each job
+   */
+  public void setEventsPosted(
+      String master, Map<String, Long> cursors, Map<String, List<Integer>> buildNumbers) {
+    redisClientDelegate.withPipeline(
+        p -> {
+          buildNumbers.forEach(
+              (job, builds) -> {
+                String key = makeMarkersKey(master, job, cursors.get(job));
+                for (Integer buildNumber : builds) {
+                  p.hset(key, Integer.toString(buildNumber), "POSTED");
+                }
+              });
+          redisClientDelegate.syncPipeline(p);
+        });
+  }
+
   public void pruneOldMarkers(String master, String job, Long cursor) {
-    remove(master, job);
+    // the job's key is written back right after, so it stays in the typeahead index
     redisClientDelegate.withCommandsClient(
         c -> {
-          c.del(makeKey(master, job) + ":" + POLL_STAMP + ":" + cursor);
+          c.del(makeKey(master, job));
+          c.del(makeMarkersKey(master, job, cursor));
         });
   }
 
@@ -140,20 +409,29 @@ public class JenkinsCache {
     redisClientDelegate.withCommandsClient(
         c -> {
           c.del(makeKey(master, job));
+          c.hdel(makeCursorsKey(master), job);
         });
+    typeaheadIndex.remove(master, job);
   }
 
   private String makeKey(String master, String job) {
     return prefix() + ":" + master + ":" + job.toUpperCase() + ":" + job;
   }
 
-  private static String extractJobName(String key) {
-    return key.split(":")[3];
+  private String makeMarkersKey(String master, String job, Long cursor) {
+    return makeKey(master, job) + ":" + POLL_STAMP + ":" + cursor;
   }
 
-  private static String extractTypeaheadResult(String key) {
-    String[] parts = key.split(":");
-    return parts[1] + ":" + parts[3];
+  private String makeCursorsKey(String master) {
+    return makeCursorsKey() + ":" + master;
+  }
+
+  private String makeCursorsKey() {
+    return prefix() + ":" + CURSORS;
+  }
+
+  private static String extractJobName(String key) {
+    return key.split(":")[3];
   }
 
   private String prefix() {
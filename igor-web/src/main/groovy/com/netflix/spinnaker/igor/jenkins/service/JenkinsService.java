@@ -38,6 +38,8 @@ import com.netflix.spinnaker.igor.jenkins.client.model.Project;
 import com.netflix.spinnaker.igor.jenkins.client.model.ProjectsList;
 import com.netflix.spinnaker.igor.jenkins.client.model.QueuedJob;
 import com.netflix.spinnaker.igor.jenkins.client.model.ScmDetails;
+import com.netflix.spinnaker.igor.limits.DownstreamLimitExceededException;
+import com.netflix.spinnaker.igor.limits.RequestHedger;
 import com.netflix.spinnaker.igor.model.BuildServiceProvider;
 import com.netflix.spinnaker.igor.model.Crumb;
 import com.netflix.spinnaker.igor.service.BuildOperations;
@@ -61,12 +63,14 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.ResponseBody;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.web.util.UriUtils;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.SafeConstructor;
+import retrofit2.Call;
 import retrofit2.Response;
 
 @Slf4j
@@ -78,6 +82,7 @@ public class JenkinsService implements BuildOperations, BuildProperties {
   private final RetrySupport retrySupport = new RetrySupport();
   private final Permissions permissions;
   private final CircuitBreaker circuitBreaker;
+  @Nullable private final RequestHedger requestHedger;
 
   public JenkinsService(
       String jenkinsHostId,
@@ -85,7 +90,18 @@ public class JenkinsService implements BuildOperations, BuildProperties {
       Boolean csrf,
       Permissions permissions,
       CircuitBreakerRegistry circuitBreakerRegistry) {
+    this(jenkinsHostId, jenkinsClient, csrf, permissions, circuitBreakerRegistry, null);
+  }
+
+  public JenkinsService(
+      String jenkinsHostId,
+      JenkinsClient jenkinsClient,
+      Boolean csrf,
+      Permissions permissions,
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      @Nullable RequestHedger requestHedger) {
     this.serviceName = jenkinsHostId;
+    this.requestHedger = requestHedger;
     this.jenkinsClient = jenkinsClient;
     this.csrf = csrf;
     this.permissions = permissions;
@@ -95,8 +111,10 @@ public class JenkinsService implements BuildOperations, BuildProperties {
             CircuitBreakerConfig.custom()
                 .ignoreException(
                     (e) -> {
-                      return e instanceof SpinnakerHttpException
-                          && ((SpinnakerHttpException) e).getResponseCode() == 404;
+                      // calls denied by the downstream limits never reached the master
+                      return (e instanceof SpinnakerHttpException
+                              && ((SpinnakerHttpException) e).getResponseCode() == 404)
+                          || e.getCause() instanceof DownstreamLimitExceededException;
                     })
                 .build());
   }
@@ -110,6 +128,14 @@ public class JenkinsService implements BuildOperations, BuildProperties {
     return UriUtils.encodeFragment(uri, "UTF-8");
   }
 
+  /** Executes a read, hedging it when hedging is enabled for this master. */
+  private <T> T read(Call<T> call) {
+    if (requestHedger == null) {
+      return Retrofit2SyncCall.execute(call);
+    }
+    return requestHedger.execute(call, Retrofit2SyncCall::execute);
+  }
+
   public ProjectsList getProjects() {
     return circuitBreaker.executeSupplier(
         () -> {
@@ -165,7 +191,7 @@ public class JenkinsService implements BuildOperations, BuildProperties {
     return circuitBreaker.executeSupplier(
         () ->
             AuthenticatedRequest.allowAnonymous(
-                    () -> Retrofit2SyncCall.execute(jenkinsClient.getBuilds(encode(jobName))))
+                    () -> read(jenkinsClient.getBuilds(encode(jobName))))
                 .getList());
   }
 
@@ -176,7 +202,7 @@ public class JenkinsService implements BuildOperations, BuildProperties {
 
   public Build getBuild(String jobName, Long buildNumber) {
     return circuitBreaker.executeSupplier(
-        () -> Retrofit2SyncCall.execute(jenkinsClient.getBuild(encode(jobName), buildNumber)));
+        () -> read(jenkinsClient.getBuild(encode(jobName), buildNumber)));
   }
 
   @Override
@@ -213,8 +239,7 @@ public class JenkinsService implements BuildOperations, BuildProperties {
     return retrySupport.retry(
         () -> {
           try {
-            return Retrofit2SyncCall.execute(
-                jenkinsClient.getGitDetails(encode(jobName), buildNumber));
+            return read(jenkinsClient.getGitDetails(encode(jobName), buildNumber));
           } catch (SpinnakerConversionException e) {
             // assuming that a conversion error is unlikely to succeed on retry
             log.warn(
@@ -37,6 +37,7 @@ import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.stereotype.Service
 
+import java.time.Instant
 import java.util.stream.Collectors
 
 import static com.netflix.spinnaker.igor.wercker.model.Run.finishedAtComparator
@@ -90,13 +91,25 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
     void poll(boolean sendEvents) {
         long startTime = System.currentTimeMillis()
         log.info "WerckerBuildMonitor Polling cycle started: ${new Date()}, echoService:${echoService.isPresent()} "
-        buildServices.getServiceNames(BuildServiceProvider.WERCKER).parallelStream().forEach( { master ->
-            pollSingle(new PollContext(master, !sendEvents))
-        }
-        )
+        pollPartitions(buildServices.getServiceNames(BuildServiceProvider.WERCKER).collect { master ->
+            new PollContext(master, !sendEvents)
+        })
         log.info "WerckerBuildMonitor Polling cycle done in ${System.currentTimeMillis() - startTime}ms"
     }
 
+    /**
+     * Masters have always been polled in parallel, so they still are unless the monitor's
+     * {@code pollConcurrency} is configured.
+     */
+    @Override
+    protected int getPollConcurrency() {
+        Integer configured = igorProperties.spinnaker.build.monitors[getName()]?.pollConcurrency
+        if (configured != null) {
+            return configured
+        }
+        return Math.max(super.getPollConcurrency(), buildServices.getServiceNames(BuildServiceProvider.WERCKER).size())
+    }
+
     /**
      * Gets a list of pipelines for this master & processes runs between last poll stamp and a sliding upper bound stamp,
      * the cursor will be used to advanced to the upper bound when all builds are completed in the commit phase.
@@ -113,9 +126,13 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
         long since = System.currentTimeMillis() - (Long.valueOf(getPollInterval() * 2 * 1000))
         try {
             Map<String, List<Run>> runs = werckerService.getRunsSince(since)
-            runs.keySet().forEach( { pipeline ->
-                processRuns(werckerService, master, pipeline, delta, runs.get(pipeline))
-            } )
+            for (String pipeline : runs.keySet()) {
+                if (ctx.isPastDeadline()) {
+                    break
+                }
+                ctx.deltaItems.examined(1)
+                processRuns(werckerService, master, pipeline, delta, runs.get(pipeline), ctx)
+            }
         } catch (e) {
             log.error("Error processing runs for Wercker[{}]", kv("master", master), e)
         }
@@ -136,7 +153,7 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
      * wercker.run = build
      */
     private void processRuns( WerckerService werckerService, String master, String pipeline,
-            List<PipelineDelta> delta, List<Run> runs) {
+            List<PipelineDelta> delta, List<Run> runs, PollContext ctx) {
         try {
             List<Run> allRuns = runs ?: werckerService.getBuilds(pipeline)
             log.info "polling Wercker pipeline: ${pipeline} got ${allRuns.size()} runs"
@@ -154,10 +171,15 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
                 log.debug("[${master}:${pipeline}] is up to date. skipping")
                 return
             }
-            cache.updateBuildNumbers(master, pipeline, allRuns)
+            // shadow polls write nothing
+            if (!ctx.isShadow()) {
+                cache.updateBuildNumbers(master, pipeline, allRuns)
+            }
             List<Run> allBuilds = allRuns.findAll { it?.startedAt?.getTime() > cursor }
             if (!cursor && !igorProperties.spinnaker.build.handleFirstBuilds) {
-                cache.setLastPollCycleTimestamp(master, pipeline, lastBuildStamp)
+                if (!ctx.isShadow()) {
+                    cache.setLastPollCycleTimestamp(master, pipeline, lastBuildStamp)
+                }
                 return
             }
             List<Run> currentlyBuilding = allBuilds.findAll { it.finishedAt == null }
@@ -213,26 +235,41 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
     @Override
     protected void commitDelta(PipelinePollingDelta delta, boolean sendEvents) {
         String master = delta.master
+        // the markers of the whole delta are read in one pipeline; each pipeline's are written in
+        // another as soon as its runs are posted, so a failure can't lose the markers of the others
+        Map<String, Set<String>> eventsPosted = cache.getEventsPosted(master, delta.items*.name) ?: [:]
+
         delta.items.parallelStream().forEach { pipeline ->
             //job = Wercker pipeline (org/app/pipeline)
             // post event for latest finished run
-            pipeline.completedBuilds.forEach { run ->
-                //build = Wercker run
-                Boolean eventPosted = cache.getEventPosted(master, pipeline.name, run.id)
-                GenericBuild build = toBuild(master, pipeline.name, run)
-                if (!eventPosted && sendEvents) {
-                    log.debug("[${master}:${pipeline.name}]:${build.id} event posted")
-                    if(postEvent(new GenericProject(pipeline.name, build), master)) {
-                        cache.setEventPosted(master, pipeline.name, run.id)
+            List<String> posted = []
+            Long advancedCursor = null
+            try {
+                pipeline.completedBuilds.forEach { run ->
+                    //build = Wercker run
+                    Boolean eventPosted = eventsPosted[pipeline.name]?.contains(run.id)
+                    GenericBuild build = toBuild(master, pipeline.name, run)
+                    if (!eventPosted && sendEvents) {
+                        log.debug("[${master}:${pipeline.name}]:${build.id} event posted")
+                        if(postEvent(new GenericProject(pipeline.name, build), master, run.finishedAt?.toInstant())) {
+                            posted.add(run.id)
+                        }
                     }
                 }
-            }
 
-            // advance cursor when all builds have completed in the interval
-            if (pipeline.runningBuilds.isEmpty()) {
-                log.info("[{}:{}] has no other builds between [${pipeline.lowerBound} - ${pipeline.upperBound}], advancing cursor to ${pipeline.lastBuildStamp}", kv("master", master), kv("pipeline", pipeline.name))
-                cache.pruneOldMarkers(master, pipeline.name, pipeline.cursor)
-                cache.setLastPollCycleTimestamp(master, pipeline.name, pipeline.lastBuildStamp)
+                // advance cursor when all builds have completed in the interval
+                if (pipeline.runningBuilds.isEmpty()) {
+                    log.info("[{}:{}] has no other builds between [${pipeline.lowerBound} - ${pipeline.upperBound}], advancing cursor to ${pipeline.lastBuildStamp}", kv("master", master), kv("pipeline", pipeline.name))
+                    advancedCursor = pipeline.lastBuildStamp
+                }
+            } finally {
+                // runs posted before a failure are still marked, so they are not posted again
+                if (posted || advancedCursor != null) {
+                    cache.commitPipelines(
+                        master,
+                        posted ? [(pipeline.name): posted] : [:],
+                        advancedCursor != null ? [(pipeline.name): advancedCursor] : [:])
+                }
             }
         }
     }
@@ -242,14 +279,26 @@ class WerckerBuildMonitor extends CommonPollingMonitor<PipelineDelta, PipelinePo
         return werckerProperties.masters.find { partition == it.name }?.itemUpperThreshold
     }
 
-    private boolean postEvent(GenericProject project, String master) {
+    @Override
+    protected Integer getPartitionPollInterval(String partition) {
+        return werckerProperties.masters.find { partition == it.name }?.pollInterval
+    }
+
+    @Override
+    protected Integer getPartitionLockDuration(String partition) {
+        return werckerProperties.masters.find { partition == it.name }?.lockDuration
+    }
+
+    private boolean postEvent(GenericProject project, String master, Instant finishedAt) {
         if (!echoService.isPresent()) {
             log.warn("Cannot send build notification: Echo is not configured")
             registry.counter(missedNotificationId.withTag("monitor", getName())).increment()
             return false
         }
-        AuthenticatedRequest.allowAnonymous {
-            Retrofit2SyncCall.execute(echoService.get().postEvent(new GenericBuildEvent(content: new GenericBuildContent(project: project, master: master, type: "wercker"))))
+        publishEvent(master, finishedAt) {
+            AuthenticatedRequest.allowAnonymous {
+                Retrofit2SyncCall.execute(echoService.get().postEvent(new GenericBuildEvent(content: new GenericBuildContent(project: project, master: master, type: "wercker"))))
+            }
         }
         return true
     }
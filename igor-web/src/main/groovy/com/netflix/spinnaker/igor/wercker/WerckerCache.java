@@ -13,13 +13,16 @@ import static com.netflix.spinnaker.igor.wercker.model.Run.startedAtComparator;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
 import com.netflix.spinnaker.igor.wercker.model.Run;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import redis.clients.jedis.Response;
 
 /** Shared cache of build details for jenkins */
 @Service
@@ -170,6 +173,53 @@ public class WerckerCache {
         });
   }
 
+  /**
+   * Returns the runs already posted for each pipeline, read in a single pipeline.
+   *
+   * @param pipelines the names of the pipelines
+   */
+  public Map<String, Set<String>> getEventsPosted(String master, Collection<String> pipelines) {
+    Map<String, Set<String>> posted = new HashMap<>();
+    redisClientDelegate.withPipeline(
+        p -> {
+          Map<String, Response<Set<String>>> markers = new HashMap<>();
+          for (String pipeline : pipelines) {
+            markers.put(pipeline, p.hkeys(makeEventsKey(master, pipeline)));
+          }
+          redisClientDelegate.syncPipeline(p);
+          markers.forEach((pipeline, response) -> posted.put(pipeline, response.get()));
+        });
+    return posted;
+  }
+
+  /**
+   * Marks runs as posted and advances the cursors of pipelines, pruning their old markers, in a
+   * single pipeline.
+   *
+   * @param runIDs the runs posted for each pipeline
+   * @param cursors the cursor each pipeline is advanced to
+   */
+  public void commitPipelines(
+      String master, Map<String, List<String>> runIDs, Map<String, Long> cursors) {
+    redisClientDelegate.withPipeline(
+        p -> {
+          runIDs.forEach(
+              (pipeline, runs) -> {
+                for (String runID : runs) {
+                  p.hset(makeEventsKey(master, pipeline), runID, "POSTED");
+                }
+              });
+          cursors.forEach(
+              (pipeline, timestamp) -> {
+                String key = makeKey(master, pipeline);
+                p.del(key);
+                p.del(makeEventsKey(master, pipeline));
+                p.hset(key, POLL_STAMP, Long.toString(timestamp));
+              });
+          redisClientDelegate.syncPipeline(p);
+        });
+  }
+
   public void pruneOldMarkers(String master, String job, Long cursor) {
     remove(master, job);
     redisClientDelegate.withCommandsClient(
@@ -37,10 +37,16 @@ import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
 import com.netflix.spinnaker.security.AuthenticatedRequest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.Getter;
@@ -56,6 +62,9 @@ import org.springframework.stereotype.Service;
 public class ConcourseBuildMonitor
     extends CommonPollingMonitor<
         ConcourseBuildMonitor.JobDelta, ConcourseBuildMonitor.JobPollingDelta> {
+  /** Jobs whose markers and cursors are committed together once their events are posted. */
+  private static final int COMMIT_BATCH_SIZE = 25;
+
   private final BuildServices buildServices;
   private final ConcourseCache cache;
   private final ConcourseProperties concourseProperties;
@@ -97,21 +106,37 @@ public class ConcourseBuildMonitor
                         "Unable to find concourse host with name '" + ctx.partitionName + "'"));
 
     ConcourseService concourseService = getService(host);
+    List<Job> jobs = concourseService.getJobs();
+    // the cursors, then the markers under them, of all jobs are read in one pipeline each
+    Map<Job, Long> cursors = cache.getLastPollCycleTimestamps(host, jobs);
+    Map<Job, Set<Long>> eventsPosted = cache.getEventsPosted(host, cursors);
     return new JobPollingDelta(
         host.getName(),
-        concourseService.getJobs().stream()
-            .map(job -> jobDelta(host, job))
+        jobs.stream()
+            .takeWhile(job -> !ctx.isPastDeadline())
+            .peek(job -> ctx.deltaItems.examined(1))
+            .map(
+                job ->
+                    jobDelta(
+                        ctx,
+                        host,
+                        job,
+                        cursors.get(job),
+                        eventsPosted.getOrDefault(job, Collections.emptySet())))
             .filter(Objects::nonNull)
             .collect(Collectors.toList()));
   }
 
   @Nullable
-  private JobDelta jobDelta(ConcourseProperties.Host host, Job job) {
+  private JobDelta jobDelta(
+      PollContext ctx,
+      ConcourseProperties.Host host,
+      Job job,
+      @Nullable Long lastPollTs,
+      Set<Long> eventsPosted) {
     String jobPath = job.toPath();
     ConcourseService concourseService = getService(host);
 
-    final Long lastPollTs = cache.getLastPollCycleTimestamp(host, job);
-
     List<Build> builds =
         concourseService.getBuilds(jobPath, lastPollTs).stream()
             .filter(Build::isSuccessful)
@@ -124,7 +149,9 @@ public class ConcourseBuildMonitor
     long lastBuildStamp = builds.iterator().next().getStartTime();
 
     if (lastPollTs == null && !igorProperties.getSpinnaker().getBuild().isHandleFirstBuilds()) {
-      cache.setLastPollCycleTimestamp(host, job, lastBuildStamp);
+      if (!ctx.isShadow()) {
+        cache.setLastPollCycleTimestamp(host, job, lastBuildStamp);
+      }
       return null;
     }
 
@@ -139,11 +166,13 @@ public class ConcourseBuildMonitor
     List<GenericBuild> genericBuilds =
         builds.stream()
             .map(build -> concourseService.getGenericBuild(jobPath, build, false))
-            .filter(b -> !cache.getEventPosted(host, job, cursor, b.getNumber()))
+            .filter(b -> !eventsPosted.contains(b.getNumber()))
             .collect(Collectors.toList());
 
     if (genericBuilds.size() == 0) {
-      cache.setLastPollCycleTimestamp(host, job, cursor);
+      if (!ctx.isShadow()) {
+        cache.setLastPollCycleTimestamp(host, job, cursor);
+      }
       return null;
     }
 
@@ -166,26 +195,56 @@ public class ConcourseBuildMonitor
 
   @Override
   protected void commitDelta(JobPollingDelta delta, boolean sendEvents) {
-    for (JobDelta jobDelta : delta.items) {
-      for (GenericBuild build : jobDelta.getBuilds()) {
-        boolean eventPosted =
-            cache.getEventPosted(
-                jobDelta.getHost(), jobDelta.getJob(), jobDelta.getCursor(), build.getNumber());
-        if (!eventPosted && sendEvents) {
-          sendEventForBuild(jobDelta.getHost(), jobDelta.getJob(), build);
+    if (delta.items.isEmpty()) {
+      return;
+    }
+    ConcourseProperties.Host host = delta.items.get(0).getHost();
+    Map<Job, Long> cursors = new HashMap<>();
+    delta.items.forEach(jobDelta -> cursors.put(jobDelta.getJob(), jobDelta.getCursor()));
+
+    // the builds of the delta were filtered against the markers read while generating it; they
+    // are committed with the cursors every COMMIT_BATCH_SIZE jobs, right after their events are
+    // posted
+    Map<Job, List<Long>> newlyPosted = new HashMap<>();
+    List<Job> committed = new ArrayList<>();
+    try {
+      for (JobDelta jobDelta : delta.items) {
+        for (GenericBuild build : jobDelta.getBuilds()) {
+          if (sendEvents) {
+            sendEventForBuild(jobDelta.getHost(), jobDelta.getJob(), build);
+          }
+          log.info(
+              "({}) caching build {} for : {}",
+              jobDelta.getHost().getName(),
+              build.getNumber(),
+              build.getFullDisplayName());
+          newlyPosted
+              .computeIfAbsent(jobDelta.getJob(), job -> new ArrayList<>())
+              .add(build.getNumber());
+        }
+        committed.add(jobDelta.getJob());
+        if (committed.size() >= COMMIT_BATCH_SIZE) {
+          commitJobs(host, cursors, newlyPosted, committed);
         }
-        log.info(
-            "({}) caching build {} for : {}",
-            jobDelta.getHost().getName(),
-            build.getNumber(),
-            build.getFullDisplayName());
-        cache.setEventPosted(
-            jobDelta.getHost(), jobDelta.getJob(), jobDelta.getCursor(), build.getNumber());
       }
-      cache.setLastPollCycleTimestamp(jobDelta.getHost(), jobDelta.getJob(), jobDelta.getCursor());
+    } finally {
+      // builds posted before a failure are still marked, so they are not posted again
+      commitJobs(host, cursors, newlyPosted, committed);
     }
   }
 
+  private void commitJobs(
+      ConcourseProperties.Host host,
+      Map<Job, Long> cursors,
+      Map<Job, List<Long>> newlyPosted,
+      List<Job> committed) {
+    if (!newlyPosted.isEmpty() || !committed.isEmpty()) {
+      cache.commitJobs(host, cursors, new HashMap<>(newlyPosted), new ArrayList<>(committed));
+    }
+    newlyPosted.clear();
+    committed.clear();
+  }
+
   private void sendEventForBuild(ConcourseProperties.Host host, Job job, GenericBuild build) {
     if (echoService.isPresent()) {
       log.info(
@@ -206,8 +265,16 @@ public class ConcourseBuildMonitor
       GenericBuildEvent event = new GenericBuildEvent();
       event.setContent(content);
 
-      AuthenticatedRequest.allowAnonymous(
-          () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event)));
+      Instant finishedAt =
+          build.getDuration() != null
+              ? Instant.ofEpochMilli(Long.parseLong(build.getTimestamp()) + build.getDuration())
+              : null;
+      publishEvent(
+          host.getName(),
+          finishedAt,
+          () ->
+              AuthenticatedRequest.allowAnonymous(
+                  () -> Retrofit2SyncCall.execute(echoService.get().postEvent(event))));
     } else {
       log.warn("Cannot send build event notification: Echo is not configured");
       log.info("({}) unable to push event for :" + build.getFullDisplayName());
@@ -216,10 +283,10 @@ public class ConcourseBuildMonitor
   }
 
   @Override
-  public void poll(boolean sendEvents) {
-    for (ConcourseProperties.Host host : concourseProperties.getMasters()) {
-      pollSingle(new PollContext(host.getName(), !sendEvents));
-    }
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
+    return concourseProperties.getMasters().stream()
+        .map(host -> new PollContext(host.getName(), !sendEvents))
+        .collect(Collectors.toList());
   }
 
   @Override
@@ -16,12 +16,25 @@
 
 package com.netflix.spinnaker.igor.concourse;
 
+import com.google.common.collect.Lists;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
 import com.netflix.spinnaker.igor.concourse.client.model.Job;
 import com.netflix.spinnaker.igor.config.ConcourseProperties;
+import com.netflix.spinnaker.igor.util.RedisScript;
 import com.netflix.spinnaker.kork.jedis.RedisClientDelegate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import redis.clients.jedis.Response;
 
 @RequiredArgsConstructor
 @Service
@@ -30,6 +43,31 @@ public class ConcourseCache {
 
   private static final String POLL_STAMP = "lastPollCycleTimestamp";
 
+  /** Jobs committed by a single run of the commit script, so that it doesn't block Redis long. */
+  static final int COMMIT_BATCH_SIZE = 500;
+
+  /**
+   * Commits a batch of jobs. KEYS holds the key and marker key of each job; ARGV holds for each job
+   * the cursor to store (empty if it isn't stored), the number of builds posted and their numbers.
+   */
+  private static final RedisScript COMMIT_SCRIPT =
+      new RedisScript(
+          "local a = 1\n"
+              + "for k = 1, #KEYS, 2 do\n"
+              + "  local cursor = ARGV[a]\n"
+              + "  local posted = tonumber(ARGV[a + 1])\n"
+              + "  for i = a + 2, a + 1 + posted do\n"
+              + "    redis.call('HSET', KEYS[k + 1], ARGV[i], 'POSTED')\n"
+              + "  end\n"
+              + "  a = a + 2 + posted\n"
+              + "  if cursor ~= '' then\n"
+              + "    redis.call('HSET', KEYS[k], '"
+              + POLL_STAMP
+              + "', cursor)\n"
+              + "  end\n"
+              + "end\n"
+              + "return 0\n");
+
   private final RedisClientDelegate redisClientDelegate;
   private final IgorConfigurationProperties igorConfigurationProperties;
 
@@ -49,22 +87,139 @@ public class ConcourseCache {
         });
   }
 
+  /**
+   * Returns the cursor of each job that has one, read in a single pipeline.
+   *
+   * @param jobs the jobs to read the cursor of
+   */
+  public Map<Job, Long> getLastPollCycleTimestamps(
+      ConcourseProperties.Host host, Collection<Job> jobs) {
+    Map<Job, Long> cursors = new HashMap<>();
+    redisClientDelegate.withPipeline(
+        p -> {
+          Map<Job, Response<String>> stamps = new HashMap<>();
+          jobs.forEach(job -> stamps.put(job, p.hget(makeKey(host, job), POLL_STAMP)));
+          redisClientDelegate.syncPipeline(p);
+          stamps.forEach(
+              (job, response) -> {
+                if (response.get() != null) {
+                  cursors.put(job, Long.parseLong(response.get()));
+                }
+              });
+        });
+    return cursors;
+  }
+
   public boolean getEventPosted(
       ConcourseProperties.Host host, Job job, Long cursor, Long buildNumber) {
-    String key = makeKey(host, job) + ":" + POLL_STAMP + ":" + cursor;
+    String key = makeMarkersKey(host, job, cursor);
     return redisClientDelegate.withCommandsClient(
         c -> c.hget(key, Long.toString(buildNumber)) != null);
   }
 
   public void setEventPosted(
       ConcourseProperties.Host host, Job job, Long cursor, Long buildNumber) {
-    String key = makeKey(host, job) + ":" + POLL_STAMP + ":" + cursor;
+    String key = makeMarkersKey(host, job, cursor);
     redisClientDelegate.withCommandsClient(
         c -> {
           c.hset(key, Long.toString(buildNumber), "POSTED");
         });
   }
 
+  /**
+   * Returns the builds already posted for each job under its cursor, read in a single pipeline.
+   *
+   * @param cursors the cursor of each job
+   */
+  public Map<Job, Set<Long>> getEventsPosted(
+      ConcourseProperties.Host host, Map<Job, Long> cursors) {
+    Map<Job, Set<Long>> posted = new HashMap<>();
+    redisClientDelegate.withPipeline(
+        p -> {
+          Map<Job, Response<Set<String>>> markers = new HashMap<>();
+          cursors.forEach(
+              (job, cursor) -> markers.put(job, p.hkeys(makeMarkersKey(host, job, cursor))));
+          redisClientDelegate.syncPipeline(p);
+          markers.forEach(
+              (job, response) ->
+                  posted.put(
+                      job, response.get().stream().map(Long::valueOf).collect(Collectors.toSet())));
+        });
+    return posted;
+  }
+
+  /**
+   * Marks builds as posted under their job's cursor and stores the cursors of the committed jobs.
+   * Each batch of jobs is applied atomically by a single script, or in a single pipeline where
+   * scripts aren't supported. Jobs without a cursor are skipped, as their markers could never be
+   * read back.
+   *
+   * @param cursors the cursor of each job the builds were posted under
+   * @param buildNumbers the builds posted for each job
+   * @param committed the jobs whose cursor is stored
+   */
+  public void commitJobs(
+      ConcourseProperties.Host host,
+      Map<Job, Long> cursors,
+      Map<Job, List<Long>> buildNumbers,
+      Collection<Job> committed) {
+    Map<Job, List<Long>> posted = new LinkedHashMap<>();
+    buildNumbers.forEach(
+        (job, builds) -> {
+          if (cursors.get(job) != null) {
+            posted.put(job, builds);
+          }
+        });
+    Set<Job> committedJobs = new LinkedHashSet<>();
+    committed.stream().filter(job -> cursors.get(job) != null).forEach(committedJobs::add);
+
+    if (!redisClientDelegate.supportsScripting()) {
+      pipelineJobs(host, cursors, posted, committedJobs);
+      return;
+    }
+
+    Set<Job> jobs = new LinkedHashSet<>(posted.keySet());
+    jobs.addAll(committedJobs);
+    for (List<Job> batch : Lists.partition(new ArrayList<>(jobs), COMMIT_BATCH_SIZE)) {
+      List<String> keys = new ArrayList<>();
+      List<String> args = new ArrayList<>();
+      for (Job job : batch) {
+        List<Long> builds = posted.getOrDefault(job, Collections.emptyList());
+        keys.add(makeKey(host, job));
+        keys.add(makeMarkersKey(host, job, cursors.get(job)));
+        args.add(committedJobs.contains(job) ? Long.toString(cursors.get(job)) : "");
+        args.add(Integer.toString(builds.size()));
+        builds.forEach(build -> args.add(Long.toString(build)));
+      }
+      COMMIT_SCRIPT.eval(redisClientDelegate, keys, args);
+    }
+  }
+
+  private void pipelineJobs(
+      ConcourseProperties.Host host,
+      Map<Job, Long> cursors,
+      Map<Job, List<Long>> buildNumbers,
+      Collection<Job> committed) {
+    redisClientDelegate.withPipeline(
+        p -> {
+          buildNumbers.forEach(
+              (job, builds) -> {
+                String key = makeMarkersKey(host, job, cursors.get(job));
+                for (Long buildNumber : builds) {
+                  p.hset(key, Long.toString(buildNumber), "POSTED");
+                }
+              });
+          for (Job job : committed) {
+            p.hset(makeKey(host, job), POLL_STAMP, Long.toString(cursors.get(job)));
+          }
+          redisClientDelegate.syncPipeline(p);
+        });
+  }
+
+  private String makeMarkersKey(ConcourseProperties.Host host, Job job, Long cursor) {
+    return makeKey(host, job) + ":" + POLL_STAMP + ":" + cursor;
+  }
+
   private String makeKey(ConcourseProperties.Host host, Job job) {
     return prefix()
         + ":"
@@ -23,12 +23,14 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.concourse.client.model.ClusterInfo;
 import com.netflix.spinnaker.igor.concourse.client.model.Token;
+import com.netflix.spinnaker.igor.polling.PollDeadlineCallFactory;
 import com.netflix.spinnaker.igor.util.RetrofitUtils;
 import com.netflix.spinnaker.kork.retrofit.ErrorHandlingExecutorCallAdapterFactory;
 import com.netflix.spinnaker.kork.retrofit.Retrofit2SyncCall;
 import com.vdurmont.semver4j.Semver;
 import java.io.IOException;
 import java.time.ZonedDateTime;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
@@ -44,6 +46,7 @@ public class ConcourseClient {
   private final String password;
 
   private final OkHttp3ClientConfiguration okHttpClientConfig;
+  @Nullable private final Interceptor limitInterceptor;
 
   private final SkyService skyServiceV1;
   private final SkyServiceV2 skyServiceV2;
@@ -86,10 +89,24 @@ public class ConcourseClient {
 
   public ConcourseClient(
       String host, String user, String password, OkHttp3ClientConfiguration okHttpClientConfig) {
+    this(host, user, password, okHttpClientConfig, null);
+  }
+
+  /**
+   * @param limitInterceptor limits the calls made through the API services, if any. The calls made
+   *     to authenticate and to stream events are never limited.
+   */
+  public ConcourseClient(
+      String host,
+      String user,
+      String password,
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      @Nullable Interceptor limitInterceptor) {
     this.host = host;
     this.user = user;
     this.password = password;
     this.okHttpClientConfig = okHttpClientConfig;
+    this.limitInterceptor = limitInterceptor;
 
     ObjectMapper mapper =
         new ObjectMapper()
@@ -203,14 +220,17 @@ public class ConcourseClient {
   }
 
   private <S> S createService(Class<S> serviceClass) {
-    OkHttpClient okHttpClient =
+    OkHttpClient.Builder okHttpClientBuilder =
         OkHttpClientBuilder.retryingClient3(okHttpClientConfig, this::refreshToken)
-            .addInterceptor(oauthInterceptor)
-            .build();
+            .addInterceptor(oauthInterceptor);
+    if (limitInterceptor != null) {
+      okHttpClientBuilder.addInterceptor(limitInterceptor);
+    }
+    OkHttpClient okHttpClient = okHttpClientBuilder.build();
 
     return new Retrofit.Builder()
         .baseUrl(RetrofitUtils.getBaseUrl(host))
-        .client(okHttpClient)
+        .callFactory(new PollDeadlineCallFactory(okHttpClient))
         .addConverterFactory(jacksonConverterFactory)
         .addCallAdapterFactory(ErrorHandlingExecutorCallAdapterFactory.getInstance())
         .build()
@@ -18,6 +18,7 @@ package com.netflix.spinnaker.igor.concourse.client;
 
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.concourse.client.model.Token;
+import com.netflix.spinnaker.igor.jfr.DownstreamCallEventInterceptor;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import java.io.IOException;
@@ -69,6 +70,7 @@ public class OkHttpClientBuilder {
       OkHttp3ClientConfiguration okHttpClientConfig, Supplier<Token> refreshToken) {
     return okHttpClientConfig
         .createForRetrofit2()
+        .addInterceptor(new DownstreamCallEventInterceptor())
         .addInterceptor(chain -> OkHttpClientBuilder.createRetryInterceptor3(chain, refreshToken))
         .hostnameVerifier((s, sslSession) -> true)
         .sslSocketFactory(getSslContext().getSocketFactory(), (X509TrustManager) trustAllCerts[0])
@@ -29,6 +29,8 @@ public class Build implements Comparable<Build> {
 
   @Getter private long startTime; // milliseconds since Unix epoch
 
+  @Getter private long endTime; // 0 until the build has finished
+
   @Getter private String status;
 
   @JsonIgnore
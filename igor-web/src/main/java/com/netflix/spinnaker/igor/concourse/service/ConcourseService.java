@@ -38,6 +38,7 @@ import com.netflix.spinnaker.igor.concourse.client.model.Pipeline;
 import com.netflix.spinnaker.igor.concourse.client.model.Resource;
 import com.netflix.spinnaker.igor.concourse.client.model.Team;
 import com.netflix.spinnaker.igor.config.ConcourseProperties;
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter;
 import com.netflix.spinnaker.igor.model.BuildServiceProvider;
 import com.netflix.spinnaker.igor.service.ArtifactDecorator;
 import com.netflix.spinnaker.igor.service.BuildOperations;
@@ -76,9 +77,23 @@ public class ConcourseService implements BuildOperations, BuildProperties {
       ConcourseProperties.Host host,
       Optional<ArtifactDecorator> artifactDecorator,
       OkHttp3ClientConfiguration okHttpClientConfig) {
+    this(host, artifactDecorator, okHttpClientConfig, Optional.empty());
+  }
+
+  public ConcourseService(
+      ConcourseProperties.Host host,
+      Optional<ArtifactDecorator> artifactDecorator,
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<DownstreamLimiter> downstreamLimiter) {
     this(
         new ConcourseClient(
-            host.getUrl(), host.getUsername(), host.getPassword(), okHttpClientConfig),
+            host.getUrl(),
+            host.getUsername(),
+            host.getPassword(),
+            okHttpClientConfig,
+            downstreamLimiter
+                .map(limiter -> limiter.interceptor("concourse-" + host.getName()))
+                .orElse(null)),
         host,
         artifactDecorator);
   }
@@ -180,6 +195,9 @@ public class ConcourseService implements BuildOperations, BuildProperties {
             + "/builds/"
             + b.getDecimalNumber());
     build.setTimestamp(Long.toString(b.getStartTime() * 1000));
+    if (b.getEndTime() > 0) {
+      build.setDuration((int) ((b.getEndTime() - b.getStartTime()) * 1000));
+    }
 
     if (!fetchResources) {
       return build;
@@ -4,6 +4,7 @@ import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
 import com.netflix.spinnaker.igor.concourse.ConcourseCache;
 import com.netflix.spinnaker.igor.concourse.service.ConcourseService;
+import com.netflix.spinnaker.igor.limits.DownstreamLimiter;
 import com.netflix.spinnaker.igor.service.ArtifactDecorator;
 import com.netflix.spinnaker.igor.service.BuildServices;
 import java.util.Collections;
@@ -29,7 +30,8 @@ public class ConcourseConfig {
       Optional<ArtifactDecorator> artifactDecorator,
       IgorConfigurationProperties igorConfigurationProperties,
       @Valid ConcourseProperties concourseProperties,
-      OkHttp3ClientConfiguration okHttpClientConfig) {
+      OkHttp3ClientConfiguration okHttpClientConfig,
+      Optional<DownstreamLimiter> downstreamLimiter) {
     List<ConcourseProperties.Host> masters = concourseProperties.getMasters();
     if (masters == null) {
       return Collections.emptyMap();
@@ -37,7 +39,10 @@ public class ConcourseConfig {
 
     Map<String, ConcourseService> concourseMasters =
         masters.stream()
-            .map(m -> new ConcourseService(m, artifactDecorator, okHttpClientConfig))
+            .map(
+                m ->
+                    new ConcourseService(
+                        m, artifactDecorator, okHttpClientConfig, downstreamLimiter))
             .collect(Collectors.toMap(ConcourseService::getMaster, Function.identity()));
 
     buildServices.addServices(concourseMasters);
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.health;
+
+import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.polling.CommonPollingMonitor;
+import com.netflix.spinnaker.igor.polling.FreshnessService;
+import com.netflix.spinnaker.igor.polling.PollContext;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the partitions that have not been committed for longer than a configured multiple of the
+ * longest interval they are expected to be polled at. They are reported as details of an {@code UP}
+ * status: a custom status would rank above {@code UP} in the default status order, and become the
+ * aggregate status of the replica, failing its readiness probe while it may well be polling fine.
+ */
+@Component
+@ConditionalOnBean(FreshnessService.class)
+public class PollingFreshnessHealthIndicator implements HealthIndicator {
+  private final FreshnessService freshnessService;
+  private final List<CommonPollingMonitor> pollingMonitors;
+  private final double maxLagMultiplier;
+
+  @Autowired
+  PollingFreshnessHealthIndicator(
+      FreshnessService freshnessService,
+      Optional<List<CommonPollingMonitor>> pollingMonitors,
+      IgorConfigurationProperties igorProperties) {
+    this.freshnessService = freshnessService;
+    this.pollingMonitors = pollingMonitors.orElse(Collections.emptyList());
+    this.maxLagMultiplier =
+        igorProperties.getSpinnaker().getBuild().getFreshness().getMaxLagMultiplier();
+  }
+
+  @Override
+  public Health health() {
+    Map<String, Long> lagging = new TreeMap<>();
+    for (CommonPollingMonitor monitor : pollingMonitors) {
+      Map<String, Duration> lags = freshnessService.getLags(monitor.getName());
+      for (Map.Entry<String, Duration> lag : lags.entrySet()) {
+        int maxPollInterval =
+            monitor.getMaxPollInterval(PollContext.getPartitionName(lag.getKey()));
+        if (lag.getValue().getSeconds() > maxLagMultiplier * maxPollInterval) {
+          lagging.put(monitor.getName() + ":" + lag.getKey(), lag.getValue().getSeconds());
+        }
+      }
+    }
+
+    return new Health.Builder()
+        .up()
+        .withDetail("degraded", !lagging.isEmpty())
+        .withDetail("laggingPartitions", lagging)
+        .build();
+  }
+}
@@ -74,10 +74,11 @@ public class HelmMonitor
   }
 
   @Override
-  public void poll(boolean sendEvents) {
+  protected List<PollContext> getPollContexts(boolean sendEvents) {
     helmAccounts.updateAccounts();
-    helmAccounts.accounts.forEach(
-        account -> pollSingle(new PollContext(account.name, account.toMap(), !sendEvents)));
+    return helmAccounts.accounts.stream()
+        .map(account -> new PollContext(account.name, account.toMap(), !sendEvents))
+        .collect(Collectors.toList());
   }
 
   @Override
@@ -177,10 +178,12 @@ public class HelmMonitor
     HelmEvent.Content helmContent =
         new HelmEvent.Content(account, delta.name, delta.version, delta.digest);
 
-    AuthenticatedRequest.allowAnonymous(
+    publishEvent(
         () ->
-            Retrofit2SyncCall.execute(
-                echoService.get().postEvent(new HelmEvent(helmContent, helmArtifact))));
+            AuthenticatedRequest.allowAnonymous(
+                () ->
+                    Retrofit2SyncCall.execute(
+                        echoService.get().postEvent(new HelmEvent(helmContent, helmArtifact)))));
   }
 
   @AllArgsConstructor
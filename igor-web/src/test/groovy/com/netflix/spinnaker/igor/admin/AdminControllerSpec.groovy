@@ -17,6 +17,7 @@ package com.netflix.spinnaker.igor.admin
 
 import com.netflix.spinnaker.igor.polling.CommonPollingMonitor
 import com.netflix.spinnaker.igor.polling.PollContext
+import com.netflix.spinnaker.igor.polling.PollHistory
 import com.netflix.spinnaker.kork.web.exceptions.NotFoundException
 import spock.lang.Specification
 
@@ -58,6 +59,46 @@ class AdminControllerSpec extends Specification {
         0 * _
     }
 
+    def "should return the poll history of a partition and its sub-partitions"() {
+        given:
+        def monitor = Mock(CommonPollingMonitor)
+        def subject = new AdminController(Optional.of([monitor]))
+
+        and:
+        def history = new PollHistory(2)
+        history.record(1000L, PollHistory.LockOutcome.ACQUIRED, 0L, 2_000_000L, 0L, 0L, 0L, 5, false, null)
+
+        when:
+        def result = subject.history("foo", "covfefe")
+
+        then:
+        1 * monitor.getName() >> "foo"
+        1 * monitor.getPollHistories() >> [
+            "covfefe": history,
+            "covfefe.shard1": history,
+            "covfefe.shards": history,
+            "other": history
+        ]
+        0 * _
+        result.keySet() == ["covfefe", "covfefe.shard1"] as Set
+        result.covfefe[0].generateMillis == 2
+        result.covfefe[0].deltaSize == 5
+    }
+
+    def "should switch shadow polling of a partition"() {
+        given:
+        def monitor = Mock(CommonPollingMonitor)
+        def subject = new AdminController(Optional.of([monitor]))
+
+        when:
+        subject.shadow("foo", "covfefe", true)
+
+        then:
+        1 * monitor.getName() >> "foo"
+        1 * monitor.setShadow("covfefe", true)
+        0 * _
+    }
+
     def "should throw not found if poller isn't found"() {
         given:
         def monitor = Mock(CommonPollingMonitor)
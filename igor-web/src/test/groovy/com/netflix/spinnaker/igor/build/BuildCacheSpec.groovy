@@ -100,6 +100,42 @@ class BuildCacheSpec extends Specification {
         cache.getJobNames(master) == ['blurb', 'job2']
     }
 
+    void 'job names and tracked builds are read from the indexes once backfilled'() {
+        given: "a key written before the indexes existed"
+        embeddedRedis.pool.resource.withCloseable {
+            it.setex(cache.makeKey(master, 'legacy', false), TTL, '1')
+        }
+
+        when: "the first read scans for the keys, backfilling the index"
+        cache.setLastBuild(master, 'job1', 1, false, TTL)
+        cache.setTracking(master, 'job1', 7, TTL)
+
+        then:
+        cache.getJobNames(master) == ['job1', 'legacy']
+        cache.getTrackedBuilds(master) == [[job: 'job1', buildId: '7']]
+
+        when: "the keys are no longer scanned for"
+        embeddedRedis.pool.resource.withCloseable {
+            it.setex(cache.makeKey(master, 'unindexed', false), TTL, '1')
+        }
+        cache.setLastBuild(master, 'job2', 1, false, TTL)
+        cache.deleteTracking(master, 'job1', 7)
+
+        then:
+        cache.getJobNames(master) == ['job1', 'job2', 'legacy']
+        cache.getTrackedBuilds(master) == []
+    }
+
+    void 'expired keys are dropped from the indexes'() {
+        given:
+        cache.getJobNames(master)
+        cache.setLastBuild(master, 'job1', 1, false, TTL)
+        cache.setLastBuild(master, 'expired', 1, false, -1)
+
+        expect:
+        cache.getJobNames(master) == ['job1']
+    }
+
     @Unroll
     void 'retrieves all matching jobs for typeahead #query'() {
         when:
@@ -121,6 +157,17 @@ class BuildCacheSpec extends Specification {
         'nope' || []
     }
 
+    void 'jobs whose builds expired are left out of the typeahead results'() {
+        given:
+        cache.setLastBuild(master, 'job1', 1, false, TTL)
+        cache.setLastBuild(master, 'job2', 1, false, -1)
+        cache.setTracking(test, 'job3', 7, TTL)
+
+        expect:
+        cache.getTypeaheadResults('job') == ['master:job1', 'test:job3']
+        cache.getTypeaheadResults('job', test, 10) == ['test:job3']
+    }
+
     void 'a cache with another prefix does not pollute the current cache'() {
         given:
         def altCfg = new IgorConfigurationProperties()
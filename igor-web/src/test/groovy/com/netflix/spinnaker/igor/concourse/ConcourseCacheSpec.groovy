@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.spinnaker.igor.concourse
+
+import com.netflix.spinnaker.igor.IgorConfigurationProperties
+import com.netflix.spinnaker.igor.concourse.client.model.Job
+import com.netflix.spinnaker.igor.config.ConcourseProperties
+import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
+import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
+import com.netflix.spinnaker.kork.jedis.RedisClientDelegate
+import redis.clients.jedis.JedisPool
+import spock.lang.Specification
+import spock.lang.Subject
+
+class ConcourseCacheSpec extends Specification {
+
+    EmbeddedRedis embeddedRedis = EmbeddedRedis.embed()
+
+    RedisClientDelegate redisClientDelegate = new JedisClientDelegate(embeddedRedis.pool as JedisPool)
+
+    @Subject
+    ConcourseCache cache = new ConcourseCache(redisClientDelegate, new IgorConfigurationProperties())
+
+    def host = new ConcourseProperties.Host(name: 'test')
+    def job1 = new Job(name: 'job1', pipelineName: 'pipeline', teamName: 'team')
+    def job2 = new Job(name: 'job2', pipelineName: 'pipeline', teamName: 'team')
+
+    void cleanup() {
+        embeddedRedis.pool.resource.withCloseable { it.flushDB() }
+        embeddedRedis.destroy()
+    }
+
+    void 'jobs are committed by a single script'() {
+        given:
+        cache.setEventPosted(host, job1, 1L, 1L)
+
+        when:
+        cache.commitJobs(host, [(job1): 1L, (job2): 5L], [(job1): [2L], (job2): [7L]], [job1])
+
+        then: 'only the committed job has its cursor stored'
+        cache.getEventsPosted(host, [(job1): 1L, (job2): 5L]) ==
+            [(job1): [1L, 2L] as Set, (job2): [7L] as Set]
+        cache.getLastPollCycleTimestamp(host, job1) == 1L
+        cache.getLastPollCycleTimestamp(host, job2) == null
+    }
+
+    void 'jobs without a cursor are not marked'() {
+        when:
+        cache.commitJobs(host, [(job1): 1L], [(job1): [2L], (job2): [7L]], [job1, job2])
+
+        then: 'no markers are written under a null cursor'
+        embeddedRedis.pool.resource.withCloseable { it.keys('*:null') }.isEmpty()
+        cache.getEventsPosted(host, [(job1): 1L]) == [(job1): [2L] as Set]
+        cache.getLastPollCycleTimestamp(host, job1) == 1L
+        cache.getLastPollCycleTimestamp(host, job2) == null
+    }
+
+    void 'the cursors of all jobs are read at once'() {
+        given:
+        cache.setLastPollCycleTimestamp(host, job1, 1L)
+
+        expect: 'jobs without a cursor are left out'
+        cache.getLastPollCycleTimestamps(host, [job1, job2]) == [(job1): 1L]
+    }
+}
@@ -225,6 +225,27 @@ class DockerMonitorSpec extends Specification {
     'partition4' | null              || null
   }
 
+  def "per-partition overrides take precedence over the docker-registry settings"() {
+    given:
+    def subject = createSubject()
+    dockerRegistryAccounts.accounts >> [[name: 'account1', pollInterval: 10], [name: 'account2'], [name: 'account3']]
+    dockerRegistryProperties.pollInterval = 120
+    dockerRegistryProperties.lockDuration = 240
+    properties.spinnaker.build.monitors = [
+      (subject.name): new IgorConfigurationProperties.SpinnakerProperties.BuildProperties.MonitorPollingProperties(
+        pollInterval: 300,
+        partitions: [account2: new IgorConfigurationProperties.SpinnakerProperties.BuildProperties.PartitionPollingProperties(
+          pollInterval: 30, lockDuration: 90)])
+    ]
+
+    expect:
+    subject.getPollInterval('account1') == 10
+    subject.getPollInterval('account2') == 30
+    subject.getLockDuration('account2') == 90
+    subject.getPollInterval('account3') == 120
+    subject.getLockDuration('account3') == 240
+  }
+
   private DockerMonitor createSubject() {
     return new DockerMonitor(properties, registry, dynamicConfig, discoveryStatusListener, lockService, dockerRegistryCache, dockerRegistryAccounts, Optional.of(echoService), Optional.of(keelService), dockerRegistryProperties, Mock(TaskScheduler))
   }
@@ -24,6 +24,7 @@ import com.netflix.spinnaker.igor.gitlabci.client.model.PipelineStatus
 import com.netflix.spinnaker.igor.gitlabci.client.model.Project
 import com.netflix.spinnaker.igor.gitlabci.service.GitlabCiService
 import com.netflix.spinnaker.igor.history.EchoService
+import com.netflix.spinnaker.igor.limits.DownstreamLane
 import com.netflix.spinnaker.igor.polling.PollContext
 import com.netflix.spinnaker.igor.service.BuildServices
 import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener
@@ -160,4 +161,23 @@ class GitlabCiBuildMonitorSpec extends Specification {
         and:
         0 * echoService.postEvent(_)
     }
+
+    def "projects are fetched on the poller's lane"() {
+        given:
+        def projects = (1..20).collect { new Project(id: it, pathWithNamespace: "user1/project$it") }
+        def lanes = Collections.synchronizedList([])
+
+        service.getProjects() >> projects
+        service.getPipelines(_, _) >> {
+            lanes << DownstreamLane.current()
+            return []
+        }
+
+        when:
+        buildMonitor.pollSingle(new PollContext(MASTER))
+
+        then:
+        lanes.size() == projects.size()
+        lanes.every { it == DownstreamLane.POLLER }
+    }
 }
@@ -29,10 +29,13 @@ import com.netflix.spinnaker.igor.polling.PollContext
 import com.netflix.spinnaker.igor.service.BuildServices
 import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService
+import com.netflix.spinnaker.kork.jedis.EmbeddedRedis
+import com.netflix.spinnaker.kork.jedis.JedisClientDelegate
 import com.netflix.spinnaker.kork.retrofit.exceptions.SpinnakerServerException
 import okhttp3.Request
 import org.slf4j.Logger
 import org.springframework.scheduling.TaskScheduler
+import redis.clients.jedis.JedisPool
 import retrofit2.mock.Calls
 import spock.lang.Specification
 /**
@@ -86,7 +89,7 @@ class   JenkinsBuildMonitorSpec extends Specification {
         monitor.pollSingle(new PollContext(MASTER))
 
         then:
-        0 * cache.getLastPollCycleTimestamp(MASTER, 'job2')
+        0 * jenkinsService.getBuilds('job2')
         0 * cache.setLastPollCycleTimestamp(_,_,_)
     }
 
@@ -96,9 +99,9 @@ class   JenkinsBuildMonitorSpec extends Specification {
         def lastBuild = new Build(number: 1, timestamp: '1494624092610', building: false, result: 'SUCCESS')
 
         and:
-        cache.getLastPollCycleTimestamp(MASTER, 'job') >> previousCursor
+        cache.getLastPollCycleTimestamps(MASTER, true) >> [job: previousCursor]
         jenkinsService.getProjects() >> new ProjectsList(list: [ new Project(name: 'job', lastBuild: lastBuild) ])
-        cache.getEventPosted(_,_,_,_) >> false
+        cache.getEventsPosted(MASTER, _) >> [:]
         jenkinsService.getBuilds('job') >> [lastBuild ]
 
         when:
@@ -114,9 +117,9 @@ class   JenkinsBuildMonitorSpec extends Specification {
         def lastBuild = new Build(number: 1, timestamp: '1494624092610', building: false, result: 'SUCCESS')
 
         and:
-        cache.getLastPollCycleTimestamp(MASTER, 'job') >> previousCursor
+        cache.getLastPollCycleTimestamps(MASTER, true) >> [job: previousCursor]
         jenkinsService.getProjects() >> new ProjectsList(list: [ new Project(name: 'job', lastBuild: lastBuild) ])
-        cache.getEventPosted(_,_,_,_) >> false
+        cache.getEventsPosted(MASTER, _) >> [:]
         jenkinsService.getBuilds('job') >> [lastBuild ]
 
         when:
@@ -141,9 +144,9 @@ class   JenkinsBuildMonitorSpec extends Specification {
         assert new Date(stamp3 as Long) < new Date(stamp4 as Long)
 
         and:
-        cache.getLastPollCycleTimestamp(MASTER, 'job') >> (previousCursor as Long)
+        cache.getLastPollCycleTimestamps(MASTER, true) >> [job: previousCursor as Long]
         jenkinsService.getProjects() >> new ProjectsList(list: [ new Project(name: 'job', lastBuild: lastBuild) ])
-        cache.getEventPosted(_,_,_,_) >> false
+        cache.getEventsPosted(MASTER, _) >> [:]
         jenkinsService.getBuilds('job') >> [
             new Build(number: 1, timestamp: stamp1, building: false, result: 'SUCCESS'),
             new Build(number: 2, timestamp: stamp1, building: true, result: null),
@@ -175,9 +178,9 @@ class   JenkinsBuildMonitorSpec extends Specification {
         assert new Date(stamp3 as Long) < new Date(stamp4 as Long)
 
         and:
-        cache.getLastPollCycleTimestamp(MASTER, 'job') >> (previousCursor as Long)
+        cache.getLastPollCycleTimestamps(MASTER, true) >> [job: previousCursor as Long]
         jenkinsService.getProjects() >> new ProjectsList(list: [ new Project(name: 'job', lastBuild: lastBuild) ])
-        cache.getEventPosted(_,_,_,_) >> false
+        cache.getEventsPosted(MASTER, _) >> [:]
         jenkinsService.getBuilds('job') >> [
             new Build(number: 1, timestamp: stamp1, building: false, result: 'SUCCESS'),
             new Build(number: 2, timestamp: stamp1, building: false, result: 'FAILURE'),
@@ -193,11 +196,74 @@ class   JenkinsBuildMonitorSpec extends Specification {
         1 * echoService.postEvent({ it.content.project.lastBuild.number == 2 && it.content.project.lastBuild.result == 'FAILURE'} as Event) >> Calls.response("")
         1 * echoService.postEvent({ it.content.project.lastBuild.number == 3 && it.content.project.lastBuild.result == 'SUCCESS'} as Event) >> Calls.response("")
 
-        and: 'prune old markers and set new cursor'
-        1 * cache.pruneOldMarkers(MASTER, 'job', 1494624092609)
-        1 * cache.setLastPollCycleTimestamp(MASTER, 'job', 1494624092612)
+        and: 'mark the posted builds, prune old markers and set new cursor in one commit'
+        1 * cache.commitJobs(MASTER, [job: 1494624092609], [job: [1, 2, 3]], [job: 1494624092612])
     }
 
+    def 'should not post events for builds already marked as posted'() {
+        given:
+        def previousCursor = 1494624092609
+        def lastBuild = new Build(number: 3, timestamp: '1494624092612')
+        cache.getLastPollCycleTimestamps(MASTER, true) >> [job: previousCursor]
+        jenkinsService.getProjects() >> new ProjectsList(list: [ new Project(name: 'job', lastBuild: lastBuild) ])
+        jenkinsService.getBuilds('job') >> [
+            new Build(number: 1, timestamp: '1494624092610', building: false, result: 'SUCCESS'),
+            new Build(number: 2, timestamp: '1494624092611', building: false, result: 'SUCCESS'),
+            new Build(number: 3, timestamp: '1494624092612', building: true, result: null)
+        ]
+
+        when:
+        monitor.pollSingle(new PollContext(MASTER))
+
+        then: 'the markers of the whole delta are read at once'
+        1 * cache.getEventsPosted(MASTER, [job: previousCursor]) >> [job: [1] as Set]
+        0 * cache.getEventPosted(_, _, _, _)
+        0 * echoService.postEvent({ it.content.project.lastBuild.number == 1 } as Event)
+        1 * echoService.postEvent({ it.content.project.lastBuild.number == 2 } as Event) >> Calls.response("")
+        1 * cache.commitJobs(MASTER, [job: previousCursor], [job: [2]], [:])
+    }
+
+    def 'should commit the jobs in batches as their events are posted'() {
+        given:
+        def previousCursor = 1494624092609
+        def jobs = (1..30).collect { "job$it" as String }
+        cache.getLastPollCycleTimestamps(MASTER, true) >> jobs.collectEntries { [(it): previousCursor] }
+        cache.getEventsPosted(MASTER, _) >> [:]
+        jenkinsService.getProjects() >> new ProjectsList(list: jobs.collect {
+            new Project(name: it, lastBuild: new Build(number: 1, timestamp: '1494624092610'))
+        })
+        jenkinsService.getBuilds(_) >> [
+            new Build(number: 1, timestamp: '1494624092610', building: false, result: 'SUCCESS')
+        ]
+        echoService.postEvent(_) >> Calls.response("")
+
+        when:
+        monitor.pollSingle(new PollContext(MASTER))
+
+        then: 'a full batch is committed as soon as it is posted, and the rest at the end'
+        1 * cache.commitJobs(MASTER, _, { it.size() == 25 }, { it.size() == 25 })
+        1 * cache.commitJobs(MASTER, _, { it.size() == 5 }, { it.size() == 5 })
+        0 * cache.commitJobs(*_)
+    }
+
+
+    def 'should read the cursors of all jobs at once'() {
+        given:
+        def lastBuild = new Build(number: 2, timestamp: '1494624092610')
+        jenkinsService.getProjects() >> new ProjectsList(list: [
+            new Project(name: 'job1', lastBuild: lastBuild),
+            new Project(name: 'job2', lastBuild: lastBuild)
+        ])
+
+        when:
+        monitor.pollSingle(new PollContext(MASTER))
+
+        then: 'jobs already up to date are skipped without any other read'
+        1 * cache.getLastPollCycleTimestamps(MASTER, true) >> [job1: 1494624092610, job2: 1494624092610]
+        0 * cache.getLastPollCycleTimestamp(_, _)
+        0 * jenkinsService.getBuilds(_)
+        0 * cache.commitJobs(*_)
+    }
 
     def 'should filter out builds older than look back window'() {
         given:
@@ -282,4 +348,62 @@ class   JenkinsBuildMonitorSpec extends Specification {
         and: 'Builds are not processed for job3'
         1 * echoService.postEvent({ it.content.project.name == 'job3'} as Event)
     }
+
+    def 'a shadow poll writes nothing to redis'() {
+        given: 'a real cache, with a cursor written before the cursors of a master were kept together'
+        EmbeddedRedis embeddedRedis = EmbeddedRedis.embed()
+        def redisCache = new JenkinsCache(new JedisClientDelegate(embeddedRedis.pool as JedisPool), igorConfigurationProperties)
+        def buildServices = new BuildServices()
+        buildServices.addServices([MASTER: jenkinsService])
+        def shadowMonitor = new JenkinsBuildMonitor(
+            igorConfigurationProperties,
+            new NoopRegistry(),
+            new DynamicConfigService.NoopDynamicConfig(),
+            new DiscoveryStatusListener(true),
+            Optional.empty(),
+            redisCache,
+            buildServices,
+            true,
+            Optional.of(echoService),
+            new JenkinsProperties(),
+            Mock(TaskScheduler)
+        )
+        shadowMonitor.setShadow(null, true)
+        igorConfigurationProperties.spinnaker.build.handleFirstBuilds = false
+        embeddedRedis.pool.resource.withCloseable {
+            it.hset("igor:${MASTER}:LEGACY:legacy".toString(), 'lastPollCycleTimestamp', '10')
+        }
+        redisCache.setLastPollCycleTimestamp(MASTER, 'current', 10L)
+
+        and: 'new jobs, and a job with a new build'
+        def newBuild = new Build(number: 2, timestamp: '20', building: false, result: 'SUCCESS')
+        jenkinsService.getProjects() >> new ProjectsList(list: [
+            new Project(name: 'new', lastBuild: newBuild),
+            new Project(name: 'legacy', lastBuild: newBuild),
+            new Project(name: 'current', lastBuild: newBuild)
+        ])
+        jenkinsService.getBuilds('current') >> [newBuild]
+        def before = snapshot(embeddedRedis)
+
+        when:
+        shadowMonitor.pollSingle(new PollContext(MASTER))
+
+        then:
+        snapshot(embeddedRedis) == before
+        0 * echoService.postEvent(_)
+        shadowMonitor.getPollHistory(MASTER).entries[0].shadow
+        shadowMonitor.getPollHistory(MASTER).entries[0].deltaSize == 1
+
+        cleanup:
+        embeddedRedis?.destroy()
+    }
+
+    private static Map<String, Object> snapshot(EmbeddedRedis embeddedRedis) {
+        embeddedRedis.pool.resource.withCloseable { jedis ->
+            jedis.keys('*').collectEntries { key ->
+                String type = jedis.type(key)
+                [(key): type == 'hash' ? jedis.hgetAll(key) : type == 'set' ? jedis.smembers(key) : jedis.dump(key)]
+            }
+        }
+    }
 }
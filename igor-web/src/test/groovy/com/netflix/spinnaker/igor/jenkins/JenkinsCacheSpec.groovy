@@ -128,6 +128,83 @@ class JenkinsCacheSpec extends Specification {
         'nope' || []
     }
 
+    void 'typeahead results can be limited and filtered by master'() {
+        given:
+        cache.setLastBuild(master, 'deploy-api', 1, false)
+        cache.setLastBuild(master, 'deploy-web', 1, false)
+        cache.setLastBuild(test, 'deploy-api', 1, false)
+
+        expect:
+        cache.getTypeaheadResults('DEPLOY', null, 2) == ['master:deploy-api', 'master:deploy-web']
+        cache.getTypeaheadResults('api', test, 10) == ['test:deploy-api']
+        cache.getTypeaheadResults('de', master, 10) == ['master:deploy-api', 'master:deploy-web']
+    }
+
+    void 'jobs cached before the typeahead index existed are backfilled, removed jobs are dropped'() {
+        given:
+        embeddedRedis.pool.resource.withCloseable {
+            it.hset('igor:master:LEGACY-JOB:legacy-job', 'lastBuildLabel', '1')
+            it.set('igor:other:cache:KEY', 'not a job')
+        }
+        cache.setLastBuild(master, 'job1', 1, false)
+
+        expect:
+        cache.getTypeaheadResults('job') == ['master:job1', 'master:legacy-job']
+
+        when:
+        cache.remove(master, 'job1')
+
+        then:
+        cache.getTypeaheadResults('job') == ['master:legacy-job']
+    }
+
+    void 'cursors are advanced and read back for a whole master at once'() {
+        given: 'a cursor written before the cursors of a master were kept together'
+        embeddedRedis.pool.resource.withCloseable {
+            it.hset('igor:master:LEGACY:legacy', 'lastPollCycleTimestamp', '10')
+        }
+        cache.setEventPosted(master, 'job1', 1L, 1)
+
+        when:
+        cache.setLastPollCycleTimestamp(master, 'job1', 1L)
+        cache.advanceCursors(master, [job1: 2L, job2: 3L], [job1: 1L, job2: null])
+
+        then:
+        cache.getLastPollCycleTimestamps(master) == [job1: 2L, job2: 3L, legacy: 10L]
+        cache.getLastPollCycleTimestamp(master, 'job2') == 3L
+        !cache.getEventPosted(master, 'job1', 1L, 1)
+        cache.getJobNames(master) == ['job1', 'job2', 'legacy']
+        cache.getTypeaheadResults('job', master, 10) == ['master:job1', 'master:job2']
+    }
+
+    void 'markers of a whole master are written and read back at once'() {
+        given:
+        cache.setEventPosted(master, 'job1', 1L, 1)
+
+        when:
+        cache.setEventsPosted(master, [job1: 1L, job2: 5L], [job1: [2, 3], job2: [7]])
+
+        then:
+        cache.getEventsPosted(master, [job1: 1L, job2: 5L, job3: 9L]) ==
+            [job1: [1, 2, 3] as Set, job2: [7] as Set, job3: [] as Set]
+        cache.getEventPosted(master, 'job2', 5L, 7)
+        !cache.getEventPosted(master, 'job2', 1L, 7)
+    }
+
+    void 'jobs are committed by a single script'() {
+        given:
+        cache.setEventPosted(master, 'job1', 1L, 1)
+        cache.setLastPollCycleTimestamp(master, 'job1', 1L)
+
+        when:
+        cache.commitJobs(master, [job1: 1L, job2: 5L], [job1: [2], job2: [7, 8]], [job1: 3L])
+
+        then: 'the advanced job has its markers pruned'
+        cache.getEventsPosted(master, [job1: 1L, job2: 5L]) == [job1: [] as Set, job2: [7, 8] as Set]
+        cache.getLastPollCycleTimestamps(master) == [job1: 3L]
+        cache.getTypeaheadResults('job', master, 10) == ['master:job1']
+    }
+
     void 'a cache with another prefix does not pollute the current cache'() {
         given:
         def cfg = new IgorConfigurationProperties()
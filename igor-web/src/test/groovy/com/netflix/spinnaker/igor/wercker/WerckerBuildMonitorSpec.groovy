@@ -123,7 +123,7 @@ class WerckerBuildMonitorSpec extends Specification {
         monitor.pollSingle(new PollContext(MASTER))
 
         then:
-        1 * cache.setEventPosted('MASTER', 'pipeline', 'init')
+        1 * cache.commitPipelines('MASTER', [pipeline: ['init']], _)
         1 * echoService.postEvent(_) >> Calls.response("")
     }
 
@@ -176,14 +176,35 @@ class WerckerBuildMonitorSpec extends Specification {
         monitor.pollSingle(new PollContext(MASTER))
 
         then:
-        1 * cache.setEventPosted('MASTER', 'myOrg/app0/p00', 'run0')
-        1 * cache.setEventPosted('MASTER', 'myOrg/app1/p10', 'run1')
-        1 * cache.setEventPosted('MASTER', 'myOrg/app1/p11', 'run3')
-        1 * cache.setEventPosted('MASTER', 'myOrg/app2/p20', 'run4')
-        0 * cache.setEventPosted('MASTER', 'myOrg/app3/p30', 'run5')
+        1 * cache.getEventsPosted('MASTER', _) >> [:]
+        1 * cache.commitPipelines('MASTER', ['myOrg/app0/p00': ['run0']], _)
+        1 * cache.commitPipelines('MASTER', ['myOrg/app1/p10': ['run1']], _)
+        1 * cache.commitPipelines('MASTER', ['myOrg/app1/p11': ['run3']], _)
+        1 * cache.commitPipelines('MASTER', ['myOrg/app2/p20': ['run4']], _)
+        0 * cache.commitPipelines(*_)
+        0 * cache.setEventPosted(*_)
         4 * echoService.postEvent(_) >>> [Calls.response(""),Calls.response(""),Calls.response(""),Calls.response("")]
     }
 
+    void 'masters are polled in parallel unless configured otherwise'() {
+        given:
+        BuildServices buildServices = new BuildServices()
+        buildServices.addServices([MASTER1: mockService, MASTER2: mockService, MASTER3: mockService])
+        mockService.getBuildServiceProvider() >> BuildServiceProvider.WERCKER
+        monitor = monitor(buildServices)
+
+        expect:
+        monitor.getPollConcurrency() == 3
+
+        when:
+        monitor.igorProperties.spinnaker.build.monitors = [
+            (monitor.name): new IgorConfigurationProperties.SpinnakerProperties.BuildProperties.MonitorPollingProperties(pollConcurrency: 1)
+        ]
+
+        then:
+        monitor.getPollConcurrency() == 1
+    }
+
     WerckerBuildMonitor monitor(BuildServices buildServices) {
         def cfg = new IgorConfigurationProperties()
         cfg.spinnaker.build.pollInterval = 1
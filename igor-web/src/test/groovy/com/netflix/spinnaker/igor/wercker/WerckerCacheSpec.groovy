@@ -49,6 +49,20 @@ class WerckerCacheSpec extends Specification {
         cache.getLastPollCycleTimestamp(master, 'myOrg/myApp/myPipeline') == now2
     }
 
+    void 'markers are written and cursors advanced for many pipelines at once'() {
+        given:
+        cache.setEventPosted(master, 'p1', 'old')
+
+        when:
+        cache.commitPipelines(master, [p1: ['r1'], p2: ['r2', 'r3']], [p1: 10L])
+
+        then: 'the advanced pipeline has its markers pruned'
+        cache.getEventsPosted(master, ['p1', 'p2', 'p3']) ==
+            [p1: [] as Set, p2: ['r2', 'r3'] as Set, p3: [] as Set]
+        cache.getLastPollCycleTimestamp(master, 'p1') == 10L
+        cache.getLastPollCycleTimestamp(master, 'p2') == null
+    }
+
     void 'generates buildNumbers ordered by startedAt'() {
         long now = System.currentTimeMillis();
         List<Run> runs1 = [
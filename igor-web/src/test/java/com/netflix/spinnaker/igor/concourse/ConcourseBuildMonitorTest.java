@@ -16,12 +16,22 @@
 
 package com.netflix.spinnaker.igor.concourse;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.google.common.collect.ImmutableMap;
 import com.netflix.spectator.api.NoopRegistry;
 import com.netflix.spinnaker.config.OkHttp3ClientConfiguration;
 import com.netflix.spinnaker.igor.IgorConfigurationProperties;
+import com.netflix.spinnaker.igor.build.model.GenericBuild;
+import com.netflix.spinnaker.igor.concourse.client.model.Job;
 import com.netflix.spinnaker.igor.concourse.service.ConcourseService;
 import com.netflix.spinnaker.igor.config.ConcourseProperties;
 import com.netflix.spinnaker.igor.history.EchoService;
@@ -30,7 +40,11 @@ import com.netflix.spinnaker.igor.service.BuildServices;
 import com.netflix.spinnaker.kork.discovery.DiscoveryStatusListener;
 import com.netflix.spinnaker.kork.dynamicconfig.DynamicConfigService;
 import com.netflix.spinnaker.okhttp.OkHttpClientConfigurationProperties;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okhttp3.mockwebserver.MockResponse;
@@ -45,6 +59,7 @@ class ConcourseBuildMonitorTest {
   private EchoService echoService = mock(EchoService.class);
   private IgorConfigurationProperties igorConfigurationProperties =
       new IgorConfigurationProperties();
+  private ConcourseProperties.Host host;
   private ConcourseBuildMonitor monitor;
   private MockWebServer mockConcourse = new MockWebServer();
 
@@ -55,7 +70,7 @@ class ConcourseBuildMonitorTest {
             .setBody("{\"version\": \"6.0.0\"}")
             .setHeader("Content-Type", "application/json;charset=utf-8"));
 
-    ConcourseProperties.Host host = new ConcourseProperties.Host();
+    host = new ConcourseProperties.Host();
     host.setName("test");
     host.setUrl(mockConcourse.url("").toString());
     host.setUsername("fake");
@@ -98,4 +113,54 @@ class ConcourseBuildMonitorTest {
     mockConcourse.enqueue(new MockResponse().setResponseCode(400));
     monitor.poll(false);
   }
+
+  @Test
+  void shouldCommitTheBuildsOfTheDeltaWithoutReadingTheirMarkersAgain() {
+    Job job = new Job();
+    job.setName("job");
+    job.setPipelineName("pipeline");
+    job.setTeamName("team");
+    GenericBuild first = new GenericBuild();
+    first.setNumber(1);
+    GenericBuild second = new GenericBuild();
+    second.setNumber(2);
+
+    monitor.commitDelta(
+        new ConcourseBuildMonitor.JobPollingDelta(
+            "test",
+            Collections.singletonList(
+                new ConcourseBuildMonitor.JobDelta(
+                    host, job, 10L, new Date(10), new Date(20), Arrays.asList(first, second)))),
+        false);
+
+    verify(cache, never()).getEventsPosted(any(), anyMap());
+    verify(cache, times(1))
+        .commitJobs(
+            host,
+            ImmutableMap.of(job, 10L),
+            ImmutableMap.of(job, Arrays.asList(1L, 2L)),
+            Collections.singletonList(job));
+  }
+
+  @Test
+  void shouldCommitTheJobsInBatchesAsTheirEventsArePosted() {
+    List<ConcourseBuildMonitor.JobDelta> items = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      Job job = new Job();
+      job.setName("job" + i);
+      job.setPipelineName("pipeline");
+      job.setTeamName("team");
+      GenericBuild build = new GenericBuild();
+      build.setNumber(1);
+      items.add(
+          new ConcourseBuildMonitor.JobDelta(
+              host, job, 10L, new Date(10), new Date(20), Collections.singletonList(build)));
+    }
+    monitor.commitDelta(new ConcourseBuildMonitor.JobPollingDelta("test", items), false);
+
+    verify(cache, times(1))
+        .commitJobs(eq(host), anyMap(), argThat(posted -> posted.size() == 25), anyCollection());
+    verify(cache, times(1))
+        .commitJobs(eq(host), anyMap(), argThat(posted -> posted.size() == 5), anyCollection());
+  }
 }